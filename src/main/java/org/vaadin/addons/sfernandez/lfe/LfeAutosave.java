@@ -1,15 +1,19 @@
 package org.vaadin.addons.sfernandez.lfe;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.vaadin.flow.component.PushConfiguration;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.shared.communication.PushMode;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 import org.vaadin.addons.sfernandez.lfe.events.LfeAutosaveWorkingStateChangeEvent;
 import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
 import org.vaadin.addons.sfernandez.lfe.setup.LfeAutosaveSetup;
 
-import java.lang.ref.Cleaner;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * <p>{@link LiveFileEditor}'s component used to manage the autosave process.</p>
@@ -22,7 +26,12 @@ public final class LfeAutosave {
     private boolean isEnabled = false;
     private LfeAutosaveSetup setup = null;
 
-    private final ScheduledExecutorService executorService = new ScheduledThreadPoolExecutor(1);
+    private final AtomicLong dirtyMarks = new AtomicLong(0L);
+    private volatile long lastDirtyMarkAt = 0L;
+
+    private final AtomicLong ticks = new AtomicLong(0L);
+    private final AtomicLong idleTicks = new AtomicLong(0L);
+    private final AtomicLong saves = new AtomicLong(0L);
 
     private final AutosaveProcess process = new AutosaveProcess();
 
@@ -33,12 +42,6 @@ public final class LfeAutosave {
      */
     LfeAutosave(LiveFileEditor editor) {
         this.editor = editor;
-
-        configureCleanUpResources();
-    }
-
-    private void configureCleanUpResources() {
-        Cleaner.create().register(this, executorService::shutdownNow);
     }
 
     //---- Methods ----
@@ -79,11 +82,20 @@ public final class LfeAutosave {
         return process.isRunning();
     }
 
+    /**
+     * @return true if the running autosave process relies on the UI's server push to deliver its saves, instead of on
+     * the UI's poll interval. See {@link LfeAutosaveSetup#isRelyingOnPushWhenEnabled()}
+     */
+    public boolean isRelyingOnPush() {
+        return process.isRelyingOnPush();
+    }
+
     /**
      * <p>Start the autosave process.</p>
      * <p>If the autosave is not enabled, then the process will not start. No exception is thrown.</p>
      * <p>Depending on the {@link LfeAutosaveSetup} the UI poll interval will be altered to be enough to execute the
-     * autosave process properly. When the autosave process is stopped then the poll interval will be restored.</p>
+     * autosave process properly. When the autosave process is stopped then the poll interval will be restored. If the
+     * UI has server push enabled, it is used instead and the poll interval is never altered.</p>
      * <p>If it is already running, then the current process is stopped before starting a new one.</p>
      * @throws LfeException if no setup has been added or if the attached editor {@link LiveFileEditor#isNotWorking()}
      */
@@ -112,6 +124,26 @@ public final class LfeAutosave {
         process.stop();
     }
 
+    /**
+     * @return a snapshot of the statistics of this autosave since it was created
+     */
+    public LfeAutosaveStatistics statistics() {
+        return new LfeAutosaveStatistics(process.currentInterval(), ticks.get(), idleTicks.get(), saves.get());
+    }
+
+    /**
+     * <p>Notify that the content to save has changed, so it will be saved in the next tick even if the
+     * {@link LfeAutosaveSetup#contentVersion()} or the content itself seem not to have changed.</p>
+     * <p>It's cheap, so it can be called from a value change listener of the component being edited.</p>
+     * <p>If the autosave is debounced, the changes are saved once the quiet period has passed since the last mark,
+     * without waiting for the next tick.</p>
+     */
+    public void markDirty() {
+        lastDirtyMarkAt = System.nanoTime();
+        dirtyMarks.incrementAndGet();
+        process.onMarkedDirty();
+    }
+
     private void notifyWorkingStateChanged() {
         editor.observer().notifyAutosaveWorkingStateChangeEvent(new LfeAutosaveWorkingStateChangeEvent(isWorking()));
     }
@@ -121,8 +153,8 @@ public final class LfeAutosave {
     }
 
     @VisibleForTesting
-    ExecutorService getExecutorService() {
-        return executorService;
+    LfeAutosaveScheduler getScheduler() {
+        return setup == null ? null : setup.scheduler();
     }
 
     @VisibleForTesting
@@ -135,33 +167,92 @@ public final class LfeAutosave {
      * **************************************/
     private class AutosaveProcess {
 
+        //---- Constants and Definitions ----
+        private static final long NO_VERSION = Long.MIN_VALUE;
+        private static final long NO_TIME = Long.MIN_VALUE;
+
         //---- Attributes ----
+        private volatile boolean isRunning = false;
         private ScheduledFuture<?> scheduled = null;
+        private volatile ScheduledFuture<?> debouncedTick = null;
+        private final Object tickLock = new Object();
+        private volatile Duration currentInterval = null;
 
         private UI ui = null;
         private int previousUiPollInterval = -1;
         private boolean pollIntervalWarningShownPreviously = false;
+        private volatile PushMode pushModeReliedOn = null;
+
+        private volatile CompletableFuture<?> tickInProgress;
+        private volatile CompletableFuture<Optional<String>> saveInProgress;
+        private volatile String previousDataSaved = null;
+        private volatile LfeFingerprint previousFingerprintSaved = null;
+        private volatile long previousVersionSaved = NO_VERSION;
+        private volatile long previousDirtyMarkSaved = NO_VERSION;
 
-        private CompletableFuture<Optional<String>> saveInProgress;
-        private String previousDataSaved = null;
+        private ChangeToken lastChangeSeen = null;
+        private long lastChangeSeenAt = NO_TIME;
+        private long firstUnsavedChangeSeenAt = NO_TIME;
 
         //---- Constructor ----
         public AutosaveProcess() {}
 
         //---- Methods ----
         public boolean isRunning() {
-            return scheduled != null && !scheduled.isDone();
+            return isRunning;
         }
 
         public void start() {
             catchEditorAttachedUi();
             ensureSufficientUiPollInterval();
 
-            scheduled = executorService.scheduleAtFixedRate(this::routine, 0L, setup.frequency().toMillis(), TimeUnit.MILLISECONDS);
+            scheduleTicks();
             notifyWorkingStateChanged();
             editor.updateState();
         }
 
+        private synchronized void scheduleTicks() {
+            isRunning = true;
+            currentInterval = setup.frequency();
+
+            Duration initialDelay = initialDelay();
+            if(setup.frequencyPolicy().isFixed())
+                scheduled = setup.scheduler().scheduleAtFixedRate(this::routine, initialDelay, currentInterval);
+            else
+                scheduled = setup.scheduler().schedule(this::adaptiveRoutine, initialDelay);
+        }
+
+        private Duration initialDelay() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delayInNanos = 0L;
+
+            if(setup.isSpreadingTicksOverFrequency())
+                delayInNanos += random.nextLong(setup.frequency().toNanos());
+
+            if(!setup.initialDelayJitter().isZero())
+                delayInNanos += random.nextLong(setup.initialDelayJitter().toNanos() + 1);
+
+            return Duration.ofNanos(delayInNanos);
+        }
+
+        private void adaptiveRoutine() {
+            TickOutcome outcome = tick();
+
+            // A failed tick restarts the process, which schedules its own first tick
+            if(outcome == TickOutcome.FAILED)
+                restartIfRunning();
+            else
+                scheduleNextAdaptiveTick(outcome == TickOutcome.CHANGES_FOUND);
+        }
+
+        private synchronized void scheduleNextAdaptiveTick(final boolean changesFound) {
+            if(!isRunning)
+                return;
+
+            currentInterval = setup.frequencyPolicy().nextInterval(setup.frequency(), currentInterval, changesFound);
+            scheduled = setup.scheduler().schedule(this::adaptiveRoutine, currentInterval);
+        }
+
         private void catchEditorAttachedUi() {
             Optional<UI> ui = editor.getAttachment().getUI();
             if(ui.isEmpty())
@@ -171,6 +262,11 @@ public final class LfeAutosave {
         }
 
         private void ensureSufficientUiPollInterval() {
+            if(setup.isRelyingOnPushWhenEnabled() && isPushEnabled()) {
+                pushModeReliedOn = ui.getPushConfiguration().getPushMode();
+                return;
+            }
+
             int autosaveFrequency = (int) setup.frequency().toMillis();
             int uiPollInterval = ui.getPollInterval();
 
@@ -187,25 +283,101 @@ public final class LfeAutosave {
                 ui.setPollInterval(autosaveFrequency);
         }
 
+        private boolean isPushEnabled() {
+            PushConfiguration pushConfiguration = ui.getPushConfiguration();
+
+            return pushConfiguration != null
+                    && pushConfiguration.getPushMode() != null
+                    && pushConfiguration.getPushMode().isEnabled();
+        }
+
+        public boolean isRelyingOnPush() {
+            return pushModeReliedOn != null;
+        }
+
         private void routine() {
+            if(tick() == TickOutcome.FAILED)
+                restartIfRunning();
+        }
+
+        private void onMarkedDirty() {
+            if(!isRunning || !setup.isDebounced())
+                return;
+
+            // A single debounced tick is pending at a time, it's postponed by the tick itself while the marks go on
+            ScheduledFuture<?> pending = debouncedTick;
+            if(pending == null || pending.isDone())
+                scheduleDebouncedTick(setup.debounceQuietPeriod());
+        }
+
+        private synchronized void scheduleDebouncedTick(final Duration delay) {
+            if(!isRunning)
+                return;
+
+            if(debouncedTick != null)
+                debouncedTick.cancel(false);
+            debouncedTick = setup.scheduler().schedule(this::routine, delay);
+        }
+
+        private TickOutcome tick() {
+            // The debounced ticks may overlap the regular ones
+            synchronized (tickLock) {
+                return tickExclusively();
+            }
+        }
+
+        private TickOutcome tickExclusively() {
+            ticks.incrementAndGet();
+
             try {
-                autosave();
+                boolean changesFound = autosave();
+                if(!changesFound)
+                    idleTicks.incrementAndGet();
+
+                return changesFound ? TickOutcome.CHANGES_FOUND : TickOutcome.IDLE;
             } catch (Exception e) {
-                start();
+                return TickOutcome.FAILED;
             }
         }
 
+        private void restartIfRunning() {
+            if(!isRunning())
+                return;
+
+            cancelScheduledTicks();
+
+            start();
+        }
+
+        private synchronized void cancelScheduledTicks() {
+            isRunning = false;
+
+            if(scheduled != null)
+                scheduled.cancel(false);
+            if(debouncedTick != null)
+                debouncedTick.cancel(false);
+            debouncedTick = null;
+        }
+
         public void stop() {
+            if(!isRunning())
+                return;
+
+            // Stopped before resetting, so a tick running meanwhile that fails on the reset state doesn't restart it
+            cancelScheduledTicks();
             undoChangesInUiPollInterval();
             reset();
 
-            scheduled.cancel(true);
             notifyWorkingStateChanged();
             editor.updateState();
         }
 
+        public Duration currentInterval() {
+            return isRunning ? currentInterval : null;
+        }
+
         private void undoChangesInUiPollInterval() {
-            if(!setup.isAllowedToAlterUiPollInterval())
+            if(!setup.isAllowedToAlterUiPollInterval() || isRelyingOnPush())
                 return;
 
             ui.setPollInterval(previousUiPollInterval);
@@ -214,39 +386,150 @@ public final class LfeAutosave {
         private void reset() {
             ui = null;
             previousUiPollInterval = -1;
+            pushModeReliedOn = null;
+
+            if(tickInProgress != null)
+                tickInProgress.cancel(true);
+            tickInProgress = null;
 
             if(saveInProgress != null)
                 saveInProgress.cancel(true);
             saveInProgress = null;
             previousDataSaved = null;
+            previousFingerprintSaved = null;
+            previousVersionSaved = NO_VERSION;
+            previousDirtyMarkSaved = NO_VERSION;
+
+            lastChangeSeen = null;
+            lastChangeSeenAt = NO_TIME;
+            firstUnsavedChangeSeenAt = NO_TIME;
         }
 
-        public synchronized void autosave() {
-            if(autosaveIsNotNecessary())
-                return;
+        /**
+         * <p>Launch a new save if it's necessary, without waiting for it to complete.</p>
+         * <p>The thread executing the tick is released as soon as the save is requested to the UI, so it is never
+         * parked while the client writes the file. While a save is in progress the following ticks do nothing.</p>
+         * <p>If the setup {@link LfeAutosaveSetup#isDebounced()}, the changes are not saved until they stop for the quiet
+         * period, or until the max wait has passed since the first unsaved change was found.</p>
+         * @return true if there are changes being saved or waiting to be saved
+         */
+        public boolean autosave() {
+            if(aTickIsInProgress())
+                return true;
+
+            if(autosaveIsNotNecessary()) {
+                firstUnsavedChangeSeenAt = NO_TIME;
+                return false;
+            }
 
-            try {
-                ui.access(() ->
-                        saveInProgress = editor.saveFile(getDataToSave())
-                ).get(ui.getPollInterval(), TimeUnit.MILLISECONDS);
-
-                saveInProgress.get().ifPresent(savedContent -> {
-                    previousDataSaved = savedContent;
-                    fire(new LfeSaveFileEvent(savedContent));
-                });
-            } catch (InterruptedException | ExecutionException e) {
-                e.printStackTrace();
-                throw new RuntimeException("This should never happen");
-            } catch (TimeoutException e) {
-                e.printStackTrace();
+            if(setup.isDebounced() && isDebouncing())
+                return true;
+
+            firstUnsavedChangeSeenAt = NO_TIME;
+            saves.incrementAndGet();
+
+            long dirtyMark = dirtyMarks.get();
+            long version = getContentVersion();
+
+            CompletableFuture<Void> accessing = new CompletableFuture<>();
+            ui.access(() -> {
+                saveInProgress = editor.autosaveFile(getDataToSave());
+                if(pushModeReliedOn == PushMode.MANUAL)
+                    ui.push();
+                accessing.complete(null);
+            });
+
+            tickInProgress = accessing
+                    .orTimeout(accessTimeoutInMillis(), TimeUnit.MILLISECONDS)
+                    .thenCompose(accessed -> saveInProgress)
+                    .thenAccept(result -> onSaved(result, dirtyMark, version));
+
+            return true;
+        }
+
+        private boolean isDebouncing() {
+            long now = System.nanoTime();
+
+            ChangeToken change = currentChange();
+            if(!change.equals(lastChangeSeen)) {
+                // A marked change is known to have happened when it was marked, not when the tick found it
+                boolean isMarked = lastChangeSeen != null && change.dirtyMark() != lastChangeSeen.dirtyMark();
+                lastChangeSeen = change;
+                lastChangeSeenAt = isMarked ? lastDirtyMarkAt : now;
             }
+
+            if(firstUnsavedChangeSeenAt == NO_TIME)
+                firstUnsavedChangeSeenAt = now;
+
+            long quietUntil = lastChangeSeenAt + setup.debounceQuietPeriod().toNanos();
+            long waitUntil = firstUnsavedChangeSeenAt + setup.debounceMaxWait().toNanos();
+            if(now - quietUntil >= 0 || now - waitUntil >= 0)
+                return false;
+
+            // Saved once the quiet period ends, instead of in the first tick after it
+            scheduleDebouncedTick(Duration.ofNanos(Math.min(quietUntil - now, waitUntil - now)));
+            return true;
+        }
+
+        private ChangeToken currentChange() {
+            if(setup.contentVersion().isPresent())
+                return new ChangeToken(dirtyMarks.get(), getContentVersion(), null);
+
+            return new ChangeToken(dirtyMarks.get(), NO_VERSION, LfeFingerprint.of(getDataToSave()));
+        }
+
+        private boolean aTickIsInProgress() {
+            CompletableFuture<?> tick = tickInProgress;
+            return tick != null && !tick.isDone();
+        }
+
+        private long accessTimeoutInMillis() {
+            return Math.max(ui.getPollInterval(), setup.frequency().toMillis());
+        }
+
+        private void onSaved(final Optional<String> result, final long dirtyMark, final long version) {
+            result.ifPresent(savedContent -> {
+                previousDirtyMarkSaved = dirtyMark;
+                previousVersionSaved = version;
+                keepTrackOf(savedContent);
+                fire(new LfeSaveFileEvent(savedContent));
+            });
+        }
+
+        private void keepTrackOf(final String savedContent) {
+            if(setup.isUsingFingerprintsToDetectChanges())
+                previousFingerprintSaved = LfeFingerprint.of(savedContent);
+            else
+                previousDataSaved = savedContent;
         }
 
         private boolean autosaveIsNotNecessary() {
-            return dataToSaveHasNotChanged();
+            if(hasBeenMarkedAsDirty())
+                return false;
+
+            return setup.contentVersion().isPresent()
+                    ? contentVersionHasNotChanged()
+                    : dataToSaveHasNotChanged();
+        }
+
+        private boolean hasBeenMarkedAsDirty() {
+            return previousDirtyMarkSaved != dirtyMarks.get();
+        }
+
+        private boolean contentVersionHasNotChanged() {
+            return previousVersionSaved != NO_VERSION && previousVersionSaved == getContentVersion();
+        }
+
+        private long getContentVersion() {
+            return setup.contentVersion()
+                    .map(LongSupplier::getAsLong)
+                    .orElse(NO_VERSION);
         }
 
         private boolean dataToSaveHasNotChanged() {
+            if(setup.isUsingFingerprintsToDetectChanges())
+                return previousFingerprintSaved != null && previousFingerprintSaved.matches(getDataToSave());
+
             return previousDataSaved != null && previousDataSaved.equals(getDataToSave());
         }
 
@@ -255,4 +538,19 @@ public final class LfeAutosave {
         }
 
     }
+
+    /**
+     * <p>Result of a tick of the autosave process.</p>
+     */
+    private enum TickOutcome {
+        CHANGES_FOUND,
+        IDLE,
+        FAILED
+    }
+
+    /**
+     * <p>Identifies the state of the content to save when a tick looks for changes.</p>
+     */
+    private record ChangeToken(long dirtyMark, long version, LfeFingerprint fingerprint) {}
+
 }
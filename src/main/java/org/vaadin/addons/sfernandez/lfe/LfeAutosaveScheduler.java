@@ -0,0 +1,42 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.vaadin.addons.sfernandez.lfe.setup.LfeAutosaveSetup;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * <p>Service in charge of executing the ticks of the {@link LfeAutosave} processes.</p>
+ * <p>By default, every autosave process of the JVM registers its ticks in the same {@link #shared()} scheduler, so the
+ * number of threads used to autosave stays constant no matter how many editors are working. Another implementation can
+ * be plugged using {@link LfeAutosaveSetup.Builder#scheduler(LfeAutosaveScheduler)}.</p>
+ */
+public interface LfeAutosaveScheduler {
+
+    /**
+     * <p>Register a tick that will be executed periodically until the returned future is cancelled.</p>
+     * <p>Implementations must not execute the same tick concurrently: if a tick is still running when the next
+     * execution is due, that execution is skipped.</p>
+     * @param tick Task to execute
+     * @param initialDelay Time to wait before the first execution
+     * @param period Time between the start of two consecutive executions
+     * @return a future that can be cancelled to stop the execution of the tick
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(Runnable tick, Duration initialDelay, Duration period);
+
+    /**
+     * <p>Register a tick that will be executed once, unless the returned future is cancelled before.</p>
+     * @param tick Task to execute
+     * @param delay Time to wait before the execution
+     * @return a future that can be cancelled to avoid the execution of the tick
+     */
+    ScheduledFuture<?> schedule(Runnable tick, Duration delay);
+
+    /**
+     * @return the scheduler shared by all the autosave processes of the JVM
+     */
+    static LfeAutosaveScheduler shared() {
+        return LfeSharedAutosaveScheduler.instance();
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.time.Duration;
+
+/**
+ * <p>Snapshot of the statistics of a {@link LfeAutosave}.</p>
+ * @param effectiveInterval Interval currently waited between two ticks, null if the autosave isn't working
+ * @param ticks Number of ticks executed
+ * @param idleTicks Number of ticks that didn't find any change to save
+ * @param saves Number of saves launched
+ */
+public record LfeAutosaveStatistics(
+        Duration effectiveInterval,
+        long ticks,
+        long idleTicks,
+        long saves
+) {}
@@ -0,0 +1,200 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>Gzip (de)compression of the contents transferred over HTTP, that keeps the statistics of the compressed bytes and
+ * of the CPU time spent.</p>
+ * <p>The CPU time is measured for the thread that (de)compresses, so the time waiting for the network isn't
+ * included. If the JVM can't measure it, the elapsed time is measured instead.</p>
+ */
+final class LfeCompression {
+
+    //---- Constants and Definitions ----
+    static final String FORMAT = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    //---- Attributes ----
+    private final LongAdder compressedSaves = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+    private final LongAdder savedCompressedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder decompressedOpens = new LongAdder();
+    private final LongAdder openedCompressedBytes = new LongAdder();
+    private final LongAdder openedBytes = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    //---- Methods ----
+    /**
+     * @return a snapshot of the statistics of the (de)compressed contents
+     */
+    LfeCompressionStatistics statistics() {
+        return new LfeCompressionStatistics(
+                compressedSaves.sum(), savedBytes.sum(), savedCompressedBytes.sum(), Duration.ofNanos(compressionNanos.sum()),
+                decompressedOpens.sum(), openedCompressedBytes.sum(), openedBytes.sum(), Duration.ofNanos(decompressionNanos.sum()));
+    }
+
+    /**
+     * <p>Write the content compressed in the output.</p>
+     * @param out Output where the compressed content is written. It isn't closed
+     * @param content Writes the content to compress
+     * @throws IOException if the content can't be written
+     */
+    void compress(final OutputStream out, final ContentWriter content) throws IOException {
+        CountingOutputStream compressed = new CountingOutputStream(out);
+        long start = cpuTime();
+
+        GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE);
+        CountingOutputStream original = new CountingOutputStream(gzip);
+        content.writeTo(original);
+        gzip.finish();
+
+        compressionNanos.add(cpuTime() - start);
+        compressedSaves.increment();
+        savedBytes.add(original.count);
+        savedCompressedBytes.add(compressed.count);
+    }
+
+    /**
+     * <p>Decompress the content read from the input. Nothing is read until the first read of the returned stream, so it
+     * can be created from the thread that holds the lock of the session.</p>
+     * @param in Input where the compressed content is read
+     * @return the decompressed content
+     */
+    InputStream decompress(final InputStream in) {
+        decompressedOpens.increment();
+        return new DecompressingInputStream(in);
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported()
+                ? THREADS.getCurrentThreadCpuTime()
+                : System.nanoTime();
+    }
+
+    /* ***************************************
+     *            CONTENT WRITER
+     * **************************************/
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /* ***************************************
+     *        COUNTING OUTPUT STREAM
+     * **************************************/
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        //---- Attributes ----
+        private long count = 0L;
+
+        //---- Constructor ----
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        //---- Methods ----
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            ++count;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+
+    /* ***************************************
+     *       DECOMPRESSING INPUT STREAM
+     * **************************************/
+    private final class DecompressingInputStream extends InputStream {
+
+        //---- Attributes ----
+        private final CountingInputStream compressed;
+        private InputStream decompressed = null;
+
+        //---- Constructor ----
+        DecompressingInputStream(InputStream in) {
+            this.compressed = new CountingInputStream(in);
+        }
+
+        //---- Methods ----
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            long start = cpuTime();
+            long compressedBefore = compressed.count;
+
+            if(decompressed == null)
+                decompressed = new GZIPInputStream(compressed, BUFFER_SIZE);
+            int read = decompressed.read(bytes, offset, length);
+
+            decompressionNanos.add(cpuTime() - start);
+            openedCompressedBytes.add(compressed.count - compressedBefore);
+            if(read > 0)
+                openedBytes.add(read);
+
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            compressed.close();
+        }
+    }
+
+    /* ***************************************
+     *         COUNTING INPUT STREAM
+     * **************************************/
+    private static final class CountingInputStream extends FilterInputStream {
+
+        //---- Attributes ----
+        private long count = 0L;
+
+        //---- Constructor ----
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        //---- Methods ----
+        @Override
+        public int read() throws IOException {
+            int read = in.read();
+            if(read != -1)
+                ++count;
+
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = in.read(bytes, offset, length);
+            if(read > 0)
+                count += read;
+
+            return read;
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.time.Duration;
+
+/**
+ * <p>Snapshot of the statistics of the contents compressed in transit by a {@link LiveFileEditor}.</p>
+ * @param compressedSaves Number of saved contents compressed by the server
+ * @param savedBytes Size of the saved contents before being compressed
+ * @param savedCompressedBytes Size of the saved contents once compressed
+ * @param compressionCpuTime CPU time spent by the server encoding and compressing the saved contents
+ * @param decompressedOpens Number of opened contents compressed by the browser
+ * @param openedCompressedBytes Size of the opened contents received compressed
+ * @param openedBytes Size of the opened contents once decompressed
+ * @param decompressionCpuTime CPU time spent by the server decompressing the opened contents
+ */
+public record LfeCompressionStatistics(
+        long compressedSaves,
+        long savedBytes,
+        long savedCompressedBytes,
+        Duration compressionCpuTime,
+        long decompressedOpens,
+        long openedCompressedBytes,
+        long openedBytes,
+        Duration decompressionCpuTime
+) {
+
+    /**
+     * @return the compressed size of the saved contents relative to their original size, 1 if nothing was compressed
+     */
+    public double saveCompressionRatio() {
+        return savedBytes == 0 ? 1.0 : (double) savedCompressedBytes / savedBytes;
+    }
+
+    /**
+     * @return the compressed size of the opened contents relative to their original size, 1 if nothing was compressed
+     */
+    public double openCompressionRatio() {
+        return openedBytes == 0 ? 1.0 : (double) openedCompressedBytes / openedBytes;
+    }
+
+}
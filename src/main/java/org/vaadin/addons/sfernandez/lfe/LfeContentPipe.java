@@ -0,0 +1,233 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Bounded pipe that hands the bytes written in its {@link #sink()} by one thread to the thread that reads its
+ * {@link #source()}.</p>
+ * <p>At most a fixed number of written chunks are buffered: once reached, the writer waits until the reader consumes
+ * them, so a slow reader slows down the writer instead of making the buffered bytes grow. If the reader closes the
+ * source before the end, the writer fails. If the writer fails, the reader gets the failure once it has consumed the
+ * chunks written before it.</p>
+ * <p>A reader that stops consuming without closing the source would keep the writer waiting forever, so the writer
+ * gives up once it has waited longer than the max stall: the content fails for both of them.</p>
+ */
+final class LfeContentPipe {
+
+    //---- Constants and Definitions ----
+    private static final byte[] END = new byte[0];
+    private static final long WRITE_POLL_MILLIS = 100L;
+
+    //---- Attributes ----
+    private final BlockingQueue<byte[]> chunks;
+    private final Semaphore freeSlots;
+    private final long maxStallNanos;
+    private volatile boolean isFinished = false;
+    private volatile boolean isClosedByReader = false;
+    private volatile IOException failure = null;
+
+    private final OutputStream sink = new Sink();
+    private final InputStream source = new Source();
+
+    //---- Constructor ----
+    /**
+     * @param maxBufferedChunks Max number of written chunks that can wait to be read
+     * @param maxStall Max time the writer waits for the reader to consume a chunk before failing
+     */
+    LfeContentPipe(int maxBufferedChunks, Duration maxStall) {
+        this.chunks = new ArrayBlockingQueue<>(maxBufferedChunks + 1); // One more to always fit the end mark
+        this.freeSlots = new Semaphore(maxBufferedChunks);
+        this.maxStallNanos = maxStall.toNanos();
+    }
+
+    //---- Methods ----
+    /**
+     * @return the stream where the content is written
+     */
+    OutputStream sink() {
+        return sink;
+    }
+
+    /**
+     * @return the stream where the content is read
+     */
+    InputStream source() {
+        return source;
+    }
+
+    /**
+     * @return true if the reader has closed the source, so nothing else will be read
+     */
+    boolean isClosedByReader() {
+        return isClosedByReader;
+    }
+
+    /**
+     * <p>Mark the end of the content. The reader gets the end once it consumes the buffered chunks. It has no effect if
+     * the content has already finished.</p>
+     */
+    synchronized void finish() {
+        if(isFinished)
+            return;
+
+        isFinished = true;
+        chunks.offer(END);
+    }
+
+    /**
+     * <p>Mark the end of the content with a failure. The reader gets the failure once it consumes the buffered
+     * chunks. It has no effect if the content has already finished.</p>
+     * @param cause Failure that the reader will get
+     */
+    synchronized void fail(final IOException cause) {
+        if(isFinished)
+            return;
+
+        failure = cause;
+        finish();
+    }
+
+    private void write(final byte[] chunk) throws IOException {
+        try {
+            long stallStart = System.nanoTime();
+            while(!freeSlots.tryAcquire(WRITE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                assertItIsPossibleToWrite();
+
+                if(System.nanoTime() - stallStart > maxStallNanos) {
+                    IOException stall = new IOException("Error. Content reader has stalled, it hasn't consumed the content for too long.");
+                    fail(stall);
+                    throw stall;
+                }
+            }
+
+            assertItIsPossibleToWrite();
+            chunks.add(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Error. Content writing has been interrupted.");
+        }
+    }
+
+    private void assertItIsPossibleToWrite() throws IOException {
+        if(isClosedByReader)
+            throw new IOException("Error. Content reader has been closed.");
+
+        if(isFinished)
+            throw new IOException("Error. Content has already finished.");
+    }
+
+    /* ***************************************
+     *                 SINK
+     * **************************************/
+    private final class Sink extends OutputStream {
+
+        //---- Methods ----
+        @Override
+        public void write(int b) throws IOException {
+            LfeContentPipe.this.write(new byte[] {(byte) b});
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if(length == 0)
+                return;
+
+            LfeContentPipe.this.write(Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+
+        @Override
+        public void close() {
+            finish();
+        }
+    }
+
+    /* ***************************************
+     *                SOURCE
+     * **************************************/
+    private final class Source extends InputStream {
+
+        //---- Attributes ----
+        private byte[] current = null;
+        private int position = 0;
+        private boolean isEnded = false;
+
+        //---- Methods ----
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if(length == 0)
+                return 0;
+
+            if(!nextChunkIsAvailable())
+                return -1;
+
+            int read = Math.min(length, current.length - position);
+            System.arraycopy(current, position, bytes, offset, read);
+            position += read;
+
+            return read;
+        }
+
+        private boolean nextChunkIsAvailable() throws IOException {
+            if(isClosedByReader)
+                throw new IOException("Error. Content reader has been closed.");
+
+            if(current != null && position < current.length)
+                return true;
+
+            if(isEnded)
+                return failIfNecessary();
+
+            try {
+                current = chunks.take();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Error. Content reading has been interrupted.");
+            }
+
+            if(current == END) {
+                isEnded = true;
+                return failIfNecessary();
+            }
+
+            freeSlots.release();
+            return true;
+        }
+
+        private boolean failIfNecessary() throws IOException {
+            if(failure != null)
+                throw failure;
+
+            return false;
+        }
+
+        @Override
+        public int available() {
+            return current == null || current == END ? 0 : current.length - position;
+        }
+
+        @Override
+        public void close() {
+            isClosedByReader = true;
+            chunks.clear();
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * <p>Read-only channel over a file opened in the browser, that only transfers the regions of the file that are read.</p>
+ * <p>The file is read by blocks of a fixed size, that are kept in a LRU cache so reading again near the same position
+ * doesn't transfer them again. Each time a block is read, the following ones are requested in advance, so sequential
+ * reads rarely wait for the browser.</p>
+ * <p>The size is the one of the file when the channel was opened. A block whose read times out is discarded, so the
+ * next read of its region requests it again instead of waiting for the same lost request.</p>
+ */
+final class LfeFileChannel implements SeekableByteChannel {
+
+    //---- Constants and Definitions ----
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int MAX_CACHED_BLOCKS = 32;
+    static final int READ_AHEAD_BLOCKS = 2;
+    private static final long READ_TIMEOUT_MILLIS = 30_000L;
+
+    //---- Attributes ----
+    private final long size;
+    private final int blockSize;
+    private final int readAheadBlocks;
+    private final long readTimeoutMillis;
+    private final BiFunction<Long, Integer, CompletableFuture<byte[]>> blockReader;
+    private final Map<Long, CompletableFuture<byte[]>> cachedBlocks;
+
+    private long position = 0L;
+    private boolean isOpen = true;
+
+    //---- Constructor ----
+    /**
+     * @param size Size of the file, in bytes
+     * @param blockReader Reads the given number of bytes of the file starting at the given position
+     */
+    LfeFileChannel(long size, BiFunction<Long, Integer, CompletableFuture<byte[]>> blockReader) {
+        this(size, BLOCK_SIZE, MAX_CACHED_BLOCKS, READ_AHEAD_BLOCKS, READ_TIMEOUT_MILLIS, blockReader);
+    }
+
+    LfeFileChannel(long size, int blockSize, int maxCachedBlocks, int readAheadBlocks,
+                   BiFunction<Long, Integer, CompletableFuture<byte[]>> blockReader) {
+        this(size, blockSize, maxCachedBlocks, readAheadBlocks, READ_TIMEOUT_MILLIS, blockReader);
+    }
+
+    LfeFileChannel(long size, int blockSize, int maxCachedBlocks, int readAheadBlocks, long readTimeoutMillis,
+                   BiFunction<Long, Integer, CompletableFuture<byte[]>> blockReader) {
+        this.size = size;
+        this.blockSize = blockSize;
+        this.readAheadBlocks = readAheadBlocks;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.blockReader = blockReader;
+        this.cachedBlocks = new LinkedHashMap<>(maxCachedBlocks, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<byte[]>> eldest) {
+                return size() > maxCachedBlocks;
+            }
+        };
+    }
+
+    //---- Methods ----
+    @Override
+    public synchronized int read(final ByteBuffer destination) throws IOException {
+        assertIsOpen();
+
+        if(position >= size)
+            return -1;
+
+        if(!destination.hasRemaining())
+            return 0;
+
+        long index = position / blockSize;
+        CompletableFuture<byte[]> reading = blockAt(index);
+        readAhead(index);
+
+        byte[] block = await(index, reading);
+        int offset = (int) (position - index * blockSize);
+        if(offset >= block.length)
+            return -1; // The file has shrunk since the channel was opened
+
+        int read = Math.min(destination.remaining(), block.length - offset);
+        destination.put(block, offset, read);
+        position += read;
+
+        return read;
+    }
+
+    private CompletableFuture<byte[]> blockAt(final long index) {
+        CompletableFuture<byte[]> block = cachedBlocks.get(index);
+
+        if(block == null || block.isCompletedExceptionally()) {
+            long start = index * blockSize;
+            block = blockReader.apply(start, (int) Math.min(blockSize, size - start));
+            cachedBlocks.put(index, block);
+        }
+
+        return block;
+    }
+
+    private void readAhead(final long index) {
+        for(long next = index + 1; next <= index + readAheadBlocks && next * blockSize < size; ++next)
+            if(!cachedBlocks.containsKey(next))
+                blockAt(next);
+    }
+
+    private byte[] await(final long index, final CompletableFuture<byte[]> reading) throws IOException {
+        try {
+            return reading.get(readTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new ClosedByInterruptException();
+        } catch (ExecutionException e) {
+            throw new IOException("Error. The file couldn't be read. " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            cachedBlocks.remove(index, reading);
+            throw new IOException("Error. The file couldn't be read before the timeout. The browser must receive the " +
+                    "read requests, what needs push or polling while there isn't any user interaction.", e);
+        }
+    }
+
+    @Override
+    public int write(final ByteBuffer source) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        assertIsOpen();
+
+        return position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(final long newPosition) throws IOException {
+        assertIsOpen();
+
+        if(newPosition < 0)
+            throw new IllegalArgumentException("Error. Position must not be negative.");
+
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        assertIsOpen();
+
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return isOpen;
+    }
+
+    @Override
+    public synchronized void close() {
+        isOpen = false;
+        cachedBlocks.clear();
+    }
+
+    private void assertIsOpen() throws ClosedChannelException {
+        if(!isOpen())
+            throw new ClosedChannelException();
+    }
+
+}
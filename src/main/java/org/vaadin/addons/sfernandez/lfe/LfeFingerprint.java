@@ -0,0 +1,106 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.util.stream.IntStream;
+
+/**
+ * <p>128-bit fingerprint of a text content plus its length.</p>
+ * <p>It's used to know if a content has changed without retaining a copy of it. The content is processed in fixed
+ * size chunks, so big contents are fingerprinted in parallel and the result is always the same, regardless of how
+ * it has been computed. It isn't a cryptographic hash: it's only meant to detect changes.</p>
+ * @param high Higher 64 bits of the fingerprint
+ * @param low Lower 64 bits of the fingerprint
+ * @param length Length of the fingerprinted content
+ */
+public record LfeFingerprint(long high, long low, long length) {
+
+    //---- Constants and Definitions ----
+    static final int CHUNK_SIZE = 64 * 1024;
+    static final int PARALLEL_THRESHOLD = 16 * CHUNK_SIZE;
+
+    private static final long HIGH_SEED = 0xCBF29CE484222325L;
+    private static final long HIGH_PRIME = 0x100000001B3L;
+    private static final long LOW_SEED = 0x9E3779B97F4A7C15L;
+    private static final long LOW_PRIME = 0xC2B2AE3D27D4EB4FL;
+
+    //---- Methods ----
+    /**
+     * @param content Content to fingerprint. Null is fingerprinted as an empty content
+     * @return the fingerprint of the content
+     */
+    public static LfeFingerprint of(final CharSequence content) {
+        if(content == null)
+            return of("");
+
+        int numOfChunks = Math.max(1, (content.length() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+        return content.length() >= PARALLEL_THRESHOLD
+                ? combine(content.length(), computeChunksInParallel(content, numOfChunks))
+                : combine(content.length(), computeChunks(content, numOfChunks));
+    }
+
+    private static long[][] computeChunks(final CharSequence content, final int numOfChunks) {
+        long[][] chunks = new long[numOfChunks][];
+
+        for(int i = 0; i < numOfChunks; ++i)
+            chunks[i] = computeChunk(content, i);
+
+        return chunks;
+    }
+
+    private static long[][] computeChunksInParallel(final CharSequence content, final int numOfChunks) {
+        long[][] chunks = new long[numOfChunks][];
+
+        IntStream.range(0, numOfChunks).parallel()
+                .forEach(i -> chunks[i] = computeChunk(content, i));
+
+        return chunks;
+    }
+
+    private static long[] computeChunk(final CharSequence content, final int chunkIndex) {
+        int start = chunkIndex * CHUNK_SIZE;
+        int end = Math.min(content.length(), start + CHUNK_SIZE);
+
+        long high = HIGH_SEED;
+        long low = LOW_SEED;
+        for(int i = start; i < end; ++i) {
+            char c = content.charAt(i);
+            high = (high ^ c) * HIGH_PRIME;
+            low = Long.rotateLeft(low + c * LOW_PRIME, 31) * LOW_SEED;
+        }
+
+        return new long[] {mix(high), mix(low)};
+    }
+
+    private static LfeFingerprint combine(final long length, final long[][] chunks) {
+        long high = mix(HIGH_SEED ^ length);
+        long low = mix(LOW_SEED + length);
+
+        for(long[] chunk : chunks) {
+            high = mix(high * HIGH_PRIME + chunk[0]);
+            low = mix(Long.rotateLeft(low, 27) ^ chunk[1]);
+        }
+
+        return new LfeFingerprint(high, low, length);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * <p>Check if the content has this fingerprint. If their lengths are different, the content isn't fingerprinted.</p>
+     * @param content Content to check
+     * @return true if the fingerprint of the content is equal to this one
+     */
+    public boolean matches(final CharSequence content) {
+        long contentLength = content == null ? 0 : content.length();
+
+        return length == contentLength && equals(of(content));
+    }
+
+}
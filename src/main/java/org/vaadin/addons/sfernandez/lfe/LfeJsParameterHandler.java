@@ -5,13 +5,22 @@ import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 import es.sfernandez.library4j.types.DataSize;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 import org.vaadin.addons.sfernandez.lfe.parameters.*;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 class LfeJsParameterHandler {
 
     //---- Attributes ----
     private final JsonParameterParser jsonParser = new JsonParameterParser();
+    private final LfeErrorHandler errorHandler = new LfeErrorHandler();
 
     //---- Methods ----
     public JsonValue mapToJson(OptionsCreateFile options) {
@@ -31,6 +40,7 @@ class LfeJsParameterHandler {
         mapJsonProperties(json, options);
 
         json.put("multiple", options.isMultipleSelection());
+        json.put("metadataOnly", options.isMetadataOnly());
 
         return json;
     }
@@ -52,6 +62,109 @@ class LfeJsParameterHandler {
         return jsonParser.toFileInfo(json);
     }
 
+    /**
+     * @param json Json which contains a file read after opening several files at once, or the error of reading it
+     * @return the file read, or nothing if it couldn't be read
+     */
+    public List<FileInfo> mapToFilesRead(JsonObject json) {
+        return json.hasKey("error")
+                ? List.of()
+                : List.of(mapToFileInfo(json));
+    }
+
+    /**
+     * @param json Json which contains the info of a file
+     * @return the exact size of the file, in bytes, or 0 if the json has no size
+     */
+    public long mapToFileLength(JsonValue json) {
+        return json instanceof JsonObject object && object.hasKey("size")
+                ? jsonParser.toLength(object)
+                : 0L;
+    }
+
+    /**
+     * @param json Json which contains some bytes of a file encoded as base64
+     * @return the decoded bytes
+     */
+    public byte[] mapToBytes(JsonValue json) {
+        return Base64.getDecoder().decode(((JsonObject) json).getString("data"));
+    }
+
+    /**
+     * @param json Json which contains the number of items notified by the browser, like files read or pages listed
+     * @return the number of items notified
+     */
+    public int mapToCount(JsonValue json) {
+        return (int) ((JsonObject) json).getNumber("count");
+    }
+
+    /**
+     * @param json Json which contains the name of a directory
+     * @return the name of the directory
+     */
+    public String mapToDirectoryName(JsonValue json) {
+        return ((JsonObject) json).getString("name");
+    }
+
+    /**
+     * @param directoryPath Path of the listed directory, empty for the root of the workspace
+     * @param json Json array with the name and the kind of some entries of the directory
+     * @return the entries of the directory
+     */
+    public List<WorkspaceEntry> mapToWorkspaceEntries(String directoryPath, JsonValue json) {
+        JsonArray array = (JsonArray) json;
+        List<WorkspaceEntry> entries = new ArrayList<>(array.length());
+
+        for(int i = 0; i < array.length(); ++i) {
+            JsonObject entry = array.getObject(i);
+            String name = entry.getString("name");
+            entries.add(new WorkspaceEntry(
+                    directoryPath.isEmpty() ? name : directoryPath + "/" + name,
+                    name,
+                    WorkspaceEntry.Kind.DIRECTORY.getRepresentation().equals(entry.getString("kind"))
+                            ? WorkspaceEntry.Kind.DIRECTORY
+                            : WorkspaceEntry.Kind.FILE
+            ));
+        }
+
+        return entries;
+    }
+
+    /**
+     * @param json Json array with the rows of the index of a workspace that have changed
+     * @return the changes of the index
+     */
+    public WorkspaceIndexChanges mapToWorkspaceIndexChanges(JsonValue json) {
+        JsonArray array = (JsonArray) json;
+        List<WorkspaceIndexEntry> updated = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        Map<String, LfeError> failed = new LinkedHashMap<>();
+
+        for(int i = 0; i < array.length(); ++i) {
+            JsonObject row = array.getObject(i);
+
+            if(errorHandler.thereIsAnError(row))
+                failed.put(row.getString("path"), errorHandler.openingFileErrorOf(row));
+            else if(row.hasKey("removed") && row.getBoolean("removed"))
+                removed.add(row.getString("path"));
+            else
+                updated.add(new WorkspaceIndexEntry(
+                        row.getString("path"),
+                        (long) row.getNumber("size"),
+                        Instant.ofEpochMilli((long) row.getNumber("lastModified")),
+                        row.getString("fingerprint")
+                ));
+        }
+
+        return new WorkspaceIndexChanges(updated, removed, failed);
+    }
+
+    public boolean isCompressed(JsonValue json) {
+        return json instanceof JsonObject object
+                && object.hasKey("compressed")
+                && object.getBoolean("compressed");
+    }
+
     /* **************************
      *      JsonParameter Parser
      * *************************/
@@ -101,11 +214,16 @@ class LfeJsParameterHandler {
         public FileInfo toFileInfo(JsonValue json) {
             JsonObject object = (JsonObject) json;
 
+            // DataSize holds int bytes, so sizes beyond it are saturated instead of overflowed. See FileStream#length
             return new FileInfo(
                     object.getString("name"),
-                    DataSize.ofBytes((int) object.getNumber("size")),
+                    DataSize.ofBytes((int) Math.min(toLength(object), Integer.MAX_VALUE)),
                     object.getString("type"),
-                    object.getString("content"));
+                    object.hasKey("content") ? object.getString("content") : null);
+        }
+
+        private long toLength(JsonObject object) {
+            return (long) object.getNumber("size"); // JS numbers are exact up to 2^53 bytes
         }
     }
 
@@ -0,0 +1,161 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.StreamReceiver;
+import com.vaadin.flow.server.StreamVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * <p>Short-lived HTTP receiver where the browser uploads the content of an opened file, so it reaches the server as a
+ * stream instead of as a parameter of a JS request.</p>
+ * <p>The receiver is exposed as an attribute of the element of the attachment. The uploaded bytes are handed to the
+ * reader of {@link #content()} through a bounded buffer: if the reader is slower than the upload, the upload waits.
+ * Once the upload ends or fails, the receiver is unregistered. If the reader doesn't consume anything for
+ * {@link #MAX_READ_STALL}, the upload fails.</p>
+ * <p>If the browser reports that it compressed the content, it's decompressed while it's read.</p>
+ */
+final class LfeOpenStream implements StreamVariable {
+
+    //---- Constants and Definitions ----
+    static final String ATTRIBUTE_PREFIX = "lfe-open-stream-";
+    static final String FAILED_EVENT = "lfe-open-stream-failed";
+    static final int MAX_BUFFERED_CHUNKS = 256;
+    static final Duration MAX_READ_STALL = Duration.ofMinutes(1);
+
+    //---- Attributes ----
+    private final String attribute = ATTRIBUTE_PREFIX + UUID.randomUUID();
+    private final transient LfeContentPipe pipe = new LfeContentPipe(MAX_BUFFERED_CHUNKS, MAX_READ_STALL);
+    private final Element element;
+    private final transient LfeCompression compression;
+    private DomListenerRegistration failedListener;
+    private boolean isRegistered = false;
+    private long length = 0L;
+    private boolean isCompressed = false;
+    private transient InputStream content = null;
+
+    //---- Constructor ----
+    private LfeOpenStream(Element element, LfeCompression compression) {
+        this.element = element;
+        this.compression = compression;
+    }
+
+    /**
+     * <p>Register a receiver for the content in the element. It must be executed holding the lock of the session.</p>
+     * @param element Element where the receiver is exposed
+     * @param compression Compression used to decompress the content if it's received compressed
+     * @return the registered stream
+     */
+    static LfeOpenStream register(final Element element, final LfeCompression compression) {
+        LfeOpenStream stream = new LfeOpenStream(element, compression);
+        stream.register();
+
+        return stream;
+    }
+
+    private void register() {
+        element.setAttribute(attribute, new StreamReceiver(element.getNode(), attribute, this));
+
+        failedListener = element.addEventListener(FAILED_EVENT, event ->
+                        cancel(event.getEventData().getString("event.detail.message")))
+                .setFilter("event.detail.attribute === '" + attribute + "'")
+                .addEventData("event.detail.message");
+
+        isRegistered = true;
+    }
+
+    //---- Methods ----
+    /**
+     * @return the attribute of the element whose value is the URL where the content must be uploaded
+     */
+    String attribute() {
+        return attribute;
+    }
+
+    /**
+     * @return the uploaded content. It must be read from a thread different from the one that holds the lock of the
+     * session, since it waits until the content is uploaded. It must be closed once it's no longer read, otherwise the
+     * upload waits until it fails for stalling
+     */
+    synchronized InputStream content() {
+        if(content == null)
+            content = isCompressed ? compression.decompress(pipe.source()) : pipe.source();
+
+        return content;
+    }
+
+    /**
+     * @return the length of the content, in bytes, once it's decompressed
+     */
+    synchronized long length() {
+        return length;
+    }
+
+    /**
+     * <p>Set how the browser sends the content. It must be set before getting the {@link #content()}.</p>
+     * @param length Length of the content, in bytes, once it's decompressed
+     * @param isCompressed true if the content is received compressed
+     */
+    synchronized void announce(final long length, final boolean isCompressed) {
+        this.length = length;
+        this.isCompressed = isCompressed;
+    }
+
+    /**
+     * <p>Give up receiving the content: the reader of the content gets a failure once it consumes what was received
+     * before. It must be executed holding the lock of the session.</p>
+     * @param reason Reason why the content won't be received
+     */
+    void cancel(final String reason) {
+        pipe.fail(new IOException("Error. The content of the file couldn't be received. " + reason));
+        unregister();
+    }
+
+    private void unregister() {
+        if(!isRegistered)
+            return;
+
+        isRegistered = false;
+        element.removeAttribute(attribute);
+        failedListener.remove();
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return pipe.sink();
+    }
+
+    @Override
+    public boolean listenProgress() {
+        return false;
+    }
+
+    @Override
+    public void onProgress(final StreamingProgressEvent event) {}
+
+    @Override
+    public void streamingStarted(final StreamingStartEvent event) {}
+
+    @Override
+    public void streamingFinished(final StreamingEndEvent event) {
+        pipe.finish();
+        unregister();
+    }
+
+    @Override
+    public void streamingFailed(final StreamingErrorEvent event) {
+        pipe.fail(new IOException("Error. The content of the file couldn't be received.", event.getException()));
+        unregister();
+    }
+
+    @Override
+    public boolean isInterrupted() {
+        return pipe.isClosedByReader();
+    }
+
+}
@@ -2,6 +2,7 @@ package org.vaadin.addons.sfernandez.lfe;
 
 import elemental.json.JsonValue;
 import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.error.LfeOperationException;
 import org.vaadin.addons.sfernandez.lfe.events.LfeCloseFileEvent;
 import org.vaadin.addons.sfernandez.lfe.events.LfeCreateFileEvent;
 import org.vaadin.addons.sfernandez.lfe.events.LfeOpenFileEvent;
@@ -74,6 +75,33 @@ public class LfeOperationHandler {
         });
     }
 
+    public CompletableFuture<byte[]> treatReadFileSliceJsRequest(final CompletableFuture<JsonValue> jsonResponse) {
+        return jsonResponse.thenApply(json -> {
+            if(errorHandler.thereIsAnError(json))
+                throw new LfeOperationException(errorHandler.openingFileErrorOf(json));
+
+            return parameterHandler.mapToBytes(json);
+        });
+    }
+
+    public CompletableFuture<String> treatOpenWorkspaceJsRequest(final CompletableFuture<JsonValue> jsonResponse) {
+        return jsonResponse.thenApply(json -> {
+            if(errorHandler.thereIsAnError(json))
+                throw new LfeOperationException(errorHandler.openingFileErrorOf(json));
+
+            return parameterHandler.mapToDirectoryName(json);
+        });
+    }
+
+    public CompletableFuture<Integer> treatPagedJsRequest(final CompletableFuture<JsonValue> jsonResponse) {
+        return jsonResponse.thenApply(json -> {
+            if(errorHandler.thereIsAnError(json))
+                throw new LfeOperationException(errorHandler.openingFileErrorOf(json));
+
+            return parameterHandler.mapToCount(json);
+        });
+    }
+
     private FileInfo toFileInfo(JsonValue json) {
         return parameterHandler.mapToFileInfo(json);
     }
@@ -0,0 +1,128 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import elemental.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p>Collects the items of a JS request whose response is sent by the browser page by page, like the entries of a
+ * directory of a workspace, or the files read after opening several files at once, one page per file.</p>
+ * <p>Each page is notified with an event of the element of the attachment as soon as it's filled, so the first
+ * items are available before the browser has finished. Once the browser reports how many pages were notified and all
+ * of them have arrived, the items are completed in the order they were notified.</p>
+ * @param <T> Type of the items
+ */
+final class LfePagedEvents<T> {
+
+    //---- Constants and Definitions ----
+    static final String DIRECTORY_PAGE_EVENT = "lfe-directory-page";
+    static final String INDEX_PAGE_EVENT = "lfe-index-page";
+    static final String FILE_READ_EVENT = "lfe-file-read";
+
+    //---- Attributes ----
+    private final String id = UUID.randomUUID().toString();
+    private final Function<JsonObject, List<T>> pageMapper;
+    private final Consumer<List<T>> onPage;
+
+    private final Map<Integer, List<T>> pages = new TreeMap<>();
+    private final CompletableFuture<List<T>> items = new CompletableFuture<>();
+    private DomListenerRegistration listener;
+    private int notifiedPages = -1;
+
+    //---- Constructor ----
+    @VisibleForTesting
+    LfePagedEvents(Function<JsonObject, List<T>> pageMapper, Consumer<List<T>> onPage) {
+        this.pageMapper = pageMapper;
+        this.onPage = onPage;
+    }
+
+    /**
+     * <p>Listen the pages notified by the element. It must be executed holding the lock of the session.</p>
+     * @param element Element where the pages are notified
+     * @param event Name of the event of each page
+     * @param pageMapper Maps the detail of the event of a page to its items
+     * @param onPage Receives the items of each page as soon as it arrives
+     * @return the registered pages
+     * @param <T> Type of the items
+     */
+    static <T> LfePagedEvents<T> register(final Element element, final String event,
+                                          final Function<JsonObject, List<T>> pageMapper, final Consumer<List<T>> onPage) {
+        LfePagedEvents<T> paged = new LfePagedEvents<>(pageMapper, onPage);
+        paged.listener = element.addEventListener(event, domEvent ->
+                        paged.onPageNotified(domEvent.getEventData().getObject("event.detail")))
+                .setFilter("event.detail.requestId === '" + paged.id + "'")
+                .addEventData("event.detail");
+
+        return paged;
+    }
+
+    //---- Methods ----
+    /**
+     * @return the id that the browser must include, as requestId, in the events of the pages
+     */
+    String id() {
+        return id;
+    }
+
+    /**
+     * @return a future completed with all the items, in the order they were notified
+     */
+    CompletableFuture<List<T>> items() {
+        return items;
+    }
+
+    @VisibleForTesting
+    void onPageNotified(final JsonObject detail) {
+        List<T> page = pageMapper.apply(detail);
+        pages.put((int) detail.getNumber("index"), page);
+        onPage.accept(page);
+
+        completeIfAllPagesAreNotified();
+    }
+
+    /**
+     * @param notifiedPages Number of pages notified by the browser
+     */
+    void onNotified(final int notifiedPages) {
+        this.notifiedPages = notifiedPages;
+
+        completeIfAllPagesAreNotified();
+    }
+
+    private void completeIfAllPagesAreNotified() {
+        if(notifiedPages < 0 || pages.size() < notifiedPages)
+            return;
+
+        unregister();
+
+        List<T> all = new ArrayList<>();
+        pages.values().forEach(all::addAll);
+        items.complete(all);
+    }
+
+    /**
+     * <p>Give up receiving the pages, completing the items exceptionally.</p>
+     * @param cause Cause why the pages can't be received
+     */
+    void fail(final Throwable cause) {
+        unregister();
+        items.completeExceptionally(cause);
+    }
+
+    private void unregister() {
+        if(listener != null)
+            listener.remove();
+        listener = null;
+    }
+
+}
@@ -0,0 +1,222 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.vaadin.flow.component.UI;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Group of saves of several {@link LiveFileEditor} that are sent together, so saving all of them costs a single
+ * round trip instead of one per editor.</p>
+ * <p>The saves of the editors attached to the same UI are sent in one JS request, where the browser writes the files
+ * concurrently and returns the result of each one. Each editor treats its result as if it had been saved on its own:
+ * its save event is fired and its state is updated. The whole content of each file is sent inline, so it's meant for
+ * small and medium files.</p>
+ * <p>Every editor is checked before anything is sent, so an editor that can't save doesn't leave the batch half sent.
+ * Like any other save, the save of each editor waits for the writes of that editor requested before it: the request of
+ * a UI is sent once none of its editors has another write in flight.</p>
+ * <p>Each save is admitted by the {@link LfeSaveLimiter} as an explicit save of its content. The saves that can't be
+ * admitted immediately aren't waited for: the request is sent without them, and each one is sent on its own once it's
+ * admitted. A save that fails doesn't fail the batch, its editor just gets an empty result.</p>
+ */
+public final class LfeSaveBatch {
+
+    //---- Attributes ----
+    private final Map<LiveFileEditor, String> saves = new LinkedHashMap<>();
+
+    //---- Methods ----
+    /**
+     * <p>Add the save of the content in the opened file of the editor. If the editor was already added, its content
+     * is replaced.</p>
+     * @param editor Editor whose opened file is saved
+     * @param content Content to save
+     * @return this batch
+     */
+    public LfeSaveBatch add(final LiveFileEditor editor, final String content) {
+        if(editor == null)
+            throw new LfeException("Error. Editor can't be null");
+
+        saves.put(editor, content);
+        return this;
+    }
+
+    /**
+     * @return the number of saves of the batch
+     */
+    public int size() {
+        return saves.size();
+    }
+
+    /**
+     * <p>Send the saves of the batch, one JS request per UI. It must be executed holding the lock of the session.</p>
+     * @return a future completed with the result of each save, by its editor, sorted as they were added. The result
+     * is the saved content, or empty if the save failed
+     * @throws LfeException if any editor isn't working or isn't attached to an UI. Nothing is sent then
+     */
+    public CompletableFuture<Map<LiveFileEditor, Optional<String>>> save() {
+        Map<UI, List<LiveFileEditor>> requests = requestsByUi();
+        saves.keySet().forEach(LiveFileEditor::assertIsReadyToSaveInBatch);
+
+        Map<LiveFileEditor, CompletableFuture<Optional<String>>> savings = new LinkedHashMap<>();
+        requests.values().forEach(editors -> send(editors).forEach((editor, saving) ->
+                savings.put(editor, saving.handle((event, error) -> error != null ? Optional.empty() : resultOf(event)))));
+
+        // A failed save doesn't fail the batch, its editor just has an empty result
+        return CompletableFuture.allOf(savings.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<LiveFileEditor, Optional<String>> results = new LinkedHashMap<>();
+                    savings.forEach((editor, saving) -> results.put(editor, saving.join()));
+                    return results;
+                });
+    }
+
+    @VisibleForTesting
+    Map<UI, List<LiveFileEditor>> requestsByUi() {
+        Map<UI, List<LiveFileEditor>> requests = new LinkedHashMap<>();
+
+        for(LiveFileEditor editor : saves.keySet()) {
+            UI ui = editor.attachment().getUI()
+                    .orElseThrow(() -> new LfeException("Error. It's not possible to save the file due to the editor isn't attached to an UI."));
+            requests.computeIfAbsent(ui, key -> new ArrayList<>()).add(editor);
+        }
+
+        return requests;
+    }
+
+    private Map<LiveFileEditor, CompletableFuture<LfeSaveFileEvent>> send(final List<LiveFileEditor> editors) {
+        List<Part> parts = new ArrayList<>();
+
+        Map<LiveFileEditor, CompletableFuture<LfeSaveFileEvent>> savings = new LinkedHashMap<>();
+        for(LiveFileEditor editor : editors) {
+            Part part = new Part(editor);
+            parts.add(part);
+
+            CompletableFuture<LfeSaveFileEvent> saving = saveInBatch(editor, part);
+            saving.whenComplete((event, error) -> part.close());
+            savings.put(editor, saving);
+        }
+
+        // Admitted once every editor of the UI is ready, so no save of the batch overlaps another write of its editor
+        // and no admitted save waits for the others while holding its permit. They're admitted in the order they were added
+        CompletableFuture.allOf(parts.stream().map(part -> part.turn).toArray(CompletableFuture[]::new))
+                .thenRun(() -> parts.forEach(part -> part.allTurns.complete(null)));
+        CompletableFuture.allOf(parts.stream().map(part -> part.request).toArray(CompletableFuture[]::new))
+                .thenRun(() -> sendRequest(parts));
+
+        return savings;
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> saveInBatch(final LiveFileEditor editor, final Part part) {
+        try {
+            return editor.saveInBatch(saves.get(editor), part);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void sendRequest(final List<Part> parts) {
+        List<Part> included = parts.stream()
+                .filter(part -> part.request.join().isPresent())
+                .toList();
+
+        if(included.isEmpty())
+            return;
+
+        try {
+            JsonArray array = Json.createArray();
+            included.forEach(part -> array.set(array.length(), part.request.join().get()));
+
+            // Any attachment of the UI can send the request, the editors are identified by their id
+            included.get(0).editor.attachment().getElement()
+                    .executeJs("return await saveFiles($0);", array)
+                    .toCompletableFuture()
+                    .whenComplete((json, error) -> {
+                        for(int i = 0; i < included.size(); ++i) {
+                            if(error != null)
+                                included.get(i).response.completeExceptionally(error);
+                            else
+                                included.get(i).response.complete(((JsonArray) json).get(i));
+                        }
+                    });
+        } catch (RuntimeException e) {
+            included.forEach(part -> part.response.completeExceptionally(e));
+        }
+    }
+
+    private Optional<String> resultOf(final LfeSaveFileEvent event) {
+        return event.failed()
+                ? Optional.empty()
+                : Optional.ofNullable(event.data());
+    }
+
+    /* ***************************************
+     *                 PART
+     * **************************************/
+    /**
+     * <p>Save of an editor inside the JS request of its UI.</p>
+     */
+    static final class Part {
+
+        //---- Attributes ----
+        private final LiveFileEditor editor;
+        private final CompletableFuture<Void> allTurns = new CompletableFuture<>();
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+        private final CompletableFuture<Optional<JsonObject>> request = new CompletableFuture<>();
+        private final CompletableFuture<JsonValue> response = new CompletableFuture<>();
+
+        //---- Constructor ----
+        private Part(LiveFileEditor editor) {
+            this.editor = editor;
+        }
+
+        //---- Methods ----
+        /**
+         * <p>Notify that the writes of the editor requested before this save have completed.</p>
+         * @return a future completed once the writes of every editor of the request have completed
+         */
+        CompletableFuture<Void> onTurn() {
+            turn.complete(null);
+            return allTurns;
+        }
+
+        /**
+         * @param request Request of the save
+         * @return true if the save is sent in the request of the batch, or false if the request has already been sent
+         * without it
+         */
+        boolean include(final JsonObject request) {
+            return this.request.complete(Optional.of(request));
+        }
+
+        /**
+         * <p>Send the request of the batch without this save, unless it has been included already.</p>
+         */
+        void exclude() {
+            request.complete(Optional.empty());
+        }
+
+        /**
+         * @return the response of the browser to this save, once the request is sent
+         */
+        CompletableFuture<JsonValue> response() {
+            return response;
+        }
+
+        private void close() {
+            turn.complete(null);
+            exclude();
+        }
+    }
+
+}
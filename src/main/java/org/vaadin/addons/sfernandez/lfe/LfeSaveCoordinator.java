@@ -0,0 +1,192 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * <p>{@link LiveFileEditor}'s component that ensures that at most one write of the file is in flight at a time.</p>
+ * <p>The saves requested while a write is in flight collapse in a single pending save, which keeps only the latest
+ * content and is written once the in flight write completes. All the callers whose content has been collapsed
+ * receive the result of the write of the latest content, since it is the one that covers theirs. The pending save
+ * has the highest {@link LfeSaveLimiter.Priority} of the saves collapsed in it.</p>
+ * <p>The rest of writes, like range writes or binary saves, can't collapse since each one changes a different part
+ * or version of the file. They wait in order behind the in flight write instead, and the saves requested after them
+ * are written after them too.</p>
+ * <p>Once the editor stops, the browser won't answer the write in flight, so it's {@link #abort(Throwable) aborted}
+ * together with the queued ones. Otherwise, the writes requested once the editor works again would wait forever
+ * behind it.</p>
+ */
+final class LfeSaveCoordinator {
+
+    //---- Attributes ----
+    private final BiFunction<String, LfeSaveLimiter.Priority, CompletableFuture<LfeSaveFileEvent>> writer;
+
+    private CompletableFuture<?> inFlight = null;
+    private final Deque<QueuedWrite<?>> queued = new ArrayDeque<>();
+
+    //---- Constructor ----
+    /**
+     * @param writer Function that writes the received content in the file with the received priority
+     */
+    LfeSaveCoordinator(BiFunction<String, LfeSaveLimiter.Priority, CompletableFuture<LfeSaveFileEvent>> writer) {
+        this.writer = writer;
+    }
+
+    //---- Methods ----
+    /**
+     * <p>Write the content if there isn't another write in flight. If there is, the content replaces the pending one
+     * and will be written after the in flight write completes.</p>
+     * @param content Content to save
+     * @param priority Priority of the save
+     * @return a future completed with the result of the write that covers the content
+     */
+    synchronized CompletableFuture<LfeSaveFileEvent> save(final String content, final LfeSaveLimiter.Priority priority) {
+        if(inFlight == null)
+            return launch(() -> writer.apply(content, priority));
+
+        // Only the last queued write can collapse, the saves can't overtake the writes requested before them
+        PendingSave pending = queued.peekLast() instanceof PendingSave last ? last : null;
+        if(pending == null) {
+            pending = new PendingSave();
+            queued.addLast(pending);
+        }
+        pending.content = content;
+        if(pending.priority == null || priority.compareTo(pending.priority) < 0)
+            pending.priority = priority;
+
+        return pending.result;
+    }
+
+    /**
+     * <p>Launch the write if there isn't another write in flight. If there is, the write is queued and launched, in
+     * order, once the writes requested before it complete. It never collapses with other writes.</p>
+     * @param writing Supplier that launches the write
+     * @return a future completed with the result of the write
+     */
+    synchronized <T> CompletableFuture<T> write(final Supplier<CompletableFuture<T>> writing) {
+        if(inFlight == null)
+            return launch(writing);
+
+        ExclusiveWrite<T> write = new ExclusiveWrite<>(writing);
+        queued.addLast(write);
+
+        return write.result;
+    }
+
+    /**
+     * @return true if there is a write in flight
+     */
+    synchronized boolean isWriting() {
+        return inFlight != null;
+    }
+
+    /**
+     * <p>Fail the write in flight and all the queued writes, so the next write is launched immediately.</p>
+     * @param reason Error the writes are completed with
+     */
+    void abort(final Throwable reason) {
+        CompletableFuture<?> aborted;
+        List<QueuedWrite<?>> abortedQueued;
+
+        synchronized (this) {
+            aborted = inFlight;
+            abortedQueued = new ArrayList<>(queued);
+            inFlight = null;
+            queued.clear();
+        }
+
+        // Completed outside the lock, so the callers of the writes don't run while holding it
+        abortedQueued.forEach(write -> write.result.completeExceptionally(reason));
+        if(aborted != null)
+            aborted.completeExceptionally(reason);
+    }
+
+    private <T> CompletableFuture<T> launch(final Supplier<CompletableFuture<T>> launching) {
+        CompletableFuture<T> writing = launching.get();
+
+        inFlight = writing;
+        writing.whenComplete((event, error) -> onWriteCompleted(writing));
+
+        return writing;
+    }
+
+    private synchronized void onWriteCompleted(final CompletableFuture<?> writing) {
+        if(inFlight != writing)
+            return;
+
+        inFlight = null;
+
+        QueuedWrite<?> next;
+        while(inFlight == null && (next = queued.pollFirst()) != null)
+            next.launchQueued();
+    }
+
+    /* ***************************************
+     *             QUEUED WRITE
+     * **************************************/
+    private abstract class QueuedWrite<T> {
+
+        //---- Attributes ----
+        protected final CompletableFuture<T> result = new CompletableFuture<>();
+
+        //---- Methods ----
+        protected abstract CompletableFuture<T> start();
+
+        private void launchQueued() {
+            try {
+                launch(this::start).whenComplete((value, error) -> {
+                    if(error != null)
+                        result.completeExceptionally(error);
+                    else
+                        result.complete(value);
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /* ***************************************
+     *             PENDING SAVE
+     * **************************************/
+    private final class PendingSave extends QueuedWrite<LfeSaveFileEvent> {
+
+        //---- Attributes ----
+        private String content;
+        private LfeSaveLimiter.Priority priority;
+
+        //---- Methods ----
+        @Override
+        protected CompletableFuture<LfeSaveFileEvent> start() {
+            return writer.apply(content, priority);
+        }
+    }
+
+    /* ***************************************
+     *            EXCLUSIVE WRITE
+     * **************************************/
+    private final class ExclusiveWrite<T> extends QueuedWrite<T> {
+
+        //---- Attributes ----
+        private final Supplier<CompletableFuture<T>> writing;
+
+        //---- Constructor ----
+        private ExclusiveWrite(Supplier<CompletableFuture<T>> writing) {
+            this.writing = writing;
+        }
+
+        //---- Methods ----
+        @Override
+        protected CompletableFuture<T> start() {
+            return writing.get();
+        }
+    }
+
+}
@@ -0,0 +1,295 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>Admission controller that limits the saves of the {@link LiveFileEditor}s that are in flight at the same time.</p>
+ * <p>A save is admitted while the max number of in flight saves and the max number of in flight bytes aren't reached.
+ * If they are, the save waits in a queue until enough in flight saves complete. Explicit saves are admitted before any
+ * queued autosave and they are never rejected. Autosaves are shed when the autosave queue is full: they are retried
+ * by the next autosave tick anyway.</p>
+ * <p>The size of a save is estimated as the length of its content. A save bigger than the max number of in flight
+ * bytes is admitted once there isn't any other save in flight.</p>
+ * <p>Every permit is leased: if its save doesn't release it before the {@link #setPermitLease(Duration) lease}
+ * expires, e.g. because the browser never answers, the permit is released anyway. The lease is cancelled once its
+ * permit is released, so only the leases of the saves in flight are kept scheduled.</p>
+ * <p>By default, every editor of the JVM uses the same {@link #shared()} limiter, which doesn't limit anything until
+ * its limits are set.</p>
+ */
+public final class LfeSaveLimiter {
+
+    //---- Constants and Definitions ----
+    /**
+     * <p>Priority of a save. Explicit saves are admitted before autosaves.</p>
+     */
+    public enum Priority {
+        /** Save requested explicitly by {@link LiveFileEditor#saveFile(String)}. It's never shed */
+        EXPLICIT,
+        /** Save requested by a {@link LfeAutosave} process. It's shed when the limiter is saturated */
+        AUTOSAVE
+    }
+
+    private static final Duration DEFAULT_PERMIT_LEASE = Duration.ofMinutes(2);
+
+    private static final class InstanceHolder {
+        private static final LfeSaveLimiter INSTANCE = new LfeSaveLimiter();
+    }
+
+    private static final class LeasesHolder {
+        private static final ScheduledThreadPoolExecutor LEASES = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "lfe-save-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            LEASES.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    //---- Attributes ----
+    private int maxInFlightSaves = Integer.MAX_VALUE;
+    private long maxInFlightBytes = Long.MAX_VALUE;
+    private int maxQueuedAutosaves = Integer.MAX_VALUE;
+    private Duration permitLease = DEFAULT_PERMIT_LEASE;
+
+    private int inFlightSaves = 0;
+    private long inFlightBytes = 0L;
+    private final Deque<Admission> queuedExplicitSaves = new ArrayDeque<>();
+    private final Deque<Admission> queuedAutosaves = new ArrayDeque<>();
+    private long shedAutosaves = 0L;
+
+    //---- Constructor ----
+    public LfeSaveLimiter() {}
+
+    /**
+     * @return the limiter shared by all the editors of the JVM
+     */
+    public static LfeSaveLimiter shared() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    //---- Methods ----
+    public synchronized int getMaxInFlightSaves() {
+        return maxInFlightSaves;
+    }
+
+    /**
+     * <p>Default: {@link Integer#MAX_VALUE}</p>
+     * @param maxInFlightSaves max number of saves in flight at the same time. Must be positive
+     * @throws LfeException if the value isn't positive
+     */
+    public void setMaxInFlightSaves(int maxInFlightSaves) {
+        if(maxInFlightSaves <= 0)
+            throw new LfeException("Error. Max number of in flight saves must be positive.");
+
+        synchronized (this) {
+            this.maxInFlightSaves = maxInFlightSaves;
+        }
+        admitQueuedSaves();
+    }
+
+    public synchronized long getMaxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * <p>Default: {@link Long#MAX_VALUE}</p>
+     * @param maxInFlightBytes max number of bytes of the saves in flight at the same time. Must be positive
+     * @throws LfeException if the value isn't positive
+     */
+    public void setMaxInFlightBytes(long maxInFlightBytes) {
+        if(maxInFlightBytes <= 0)
+            throw new LfeException("Error. Max number of in flight bytes must be positive.");
+
+        synchronized (this) {
+            this.maxInFlightBytes = maxInFlightBytes;
+        }
+        admitQueuedSaves();
+    }
+
+    public synchronized int getMaxQueuedAutosaves() {
+        return maxQueuedAutosaves;
+    }
+
+    /**
+     * <p>Default: {@link Integer#MAX_VALUE}</p>
+     * @param maxQueuedAutosaves max number of autosaves waiting to be admitted. Once reached, the new autosaves are
+     *                           shed. Zero sheds every autosave that can't be admitted immediately
+     * @throws LfeException if the value is negative
+     */
+    public synchronized void setMaxQueuedAutosaves(int maxQueuedAutosaves) {
+        if(maxQueuedAutosaves < 0)
+            throw new LfeException("Error. Max number of queued autosaves must not be negative.");
+
+        this.maxQueuedAutosaves = maxQueuedAutosaves;
+    }
+
+    public synchronized Duration getPermitLease() {
+        return permitLease;
+    }
+
+    /**
+     * <p>Default: 2 minutes</p>
+     * @param permitLease max time a save can hold its permit. Once elapsed, the permit is released even if the save
+     *                    hasn't completed. Must be positive
+     * @throws LfeException if the value is null or isn't positive
+     */
+    public synchronized void setPermitLease(Duration permitLease) {
+        if(permitLease == null || permitLease.isNegative() || permitLease.isZero())
+            throw new LfeException("Error. Permit lease must be positive.");
+
+        this.permitLease = permitLease;
+    }
+
+    /**
+     * @return a snapshot of the statistics of this limiter
+     */
+    public synchronized LfeSaveLimiterStatistics statistics() {
+        return new LfeSaveLimiterStatistics(inFlightSaves, inFlightBytes,
+                queuedExplicitSaves.size(), queuedAutosaves.size(), shedAutosaves);
+    }
+
+    /**
+     * <p>Ask for the admission of a save.</p>
+     * @param priority Priority of the save
+     * @param bytes Size of the save
+     * @return a future completed with the permit of the save once it's admitted, or with an empty optional if it has
+     * been shed. The permit must be released once the save completes
+     */
+    synchronized CompletableFuture<Optional<Permit>> acquire(final Priority priority, final long bytes) {
+        boolean isFirstInQueue = priority == Priority.EXPLICIT
+                ? queuedExplicitSaves.isEmpty()
+                : queuedExplicitSaves.isEmpty() && queuedAutosaves.isEmpty();
+
+        if(isFirstInQueue && fits(bytes))
+            return CompletableFuture.completedFuture(Optional.of(admit(bytes)));
+
+        if(priority == Priority.AUTOSAVE && queuedAutosaves.size() >= maxQueuedAutosaves) {
+            ++shedAutosaves;
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        Admission admission = new Admission(bytes);
+        (priority == Priority.EXPLICIT ? queuedExplicitSaves : queuedAutosaves).addLast(admission);
+
+        return admission.future;
+    }
+
+    private boolean fits(final long bytes) {
+        return inFlightSaves < maxInFlightSaves
+                && (inFlightSaves == 0 || inFlightBytes + bytes <= maxInFlightBytes);
+    }
+
+    private Permit admit(final long bytes) {
+        ++inFlightSaves;
+        inFlightBytes += bytes;
+
+        Permit permit = new Permit(bytes);
+        permit.lease = LeasesHolder.LEASES.schedule(permit::release, permitLease.toMillis(), TimeUnit.MILLISECONDS);
+
+        return permit;
+    }
+
+    /**
+     * @return the number of leases scheduled by all the limiters of the JVM
+     */
+    @VisibleForTesting
+    static int scheduledLeases() {
+        return LeasesHolder.LEASES.getQueue().size();
+    }
+
+    private void release(final Permit permit) {
+        synchronized (this) {
+            --inFlightSaves;
+            inFlightBytes -= permit.bytes;
+        }
+        admitQueuedSaves();
+    }
+
+    private void admitQueuedSaves() {
+        List<Runnable> admitted = new ArrayList<>();
+
+        synchronized (this) {
+            Admission next;
+            while((next = nextQueued()) != null && fits(next.bytes)) {
+                (next == queuedExplicitSaves.peekFirst() ? queuedExplicitSaves : queuedAutosaves).pollFirst();
+
+                Admission admission = next;
+                Permit permit = admit(admission.bytes);
+                admitted.add(() -> admission.future.complete(Optional.of(permit)));
+            }
+        }
+
+        // Completed outside the lock, so the admitted saves don't run while holding it
+        admitted.forEach(Runnable::run);
+    }
+
+    private Admission nextQueued() {
+        Admission next = queuedExplicitSaves.peekFirst();
+
+        return next != null ? next : queuedAutosaves.peekFirst();
+    }
+
+    /* ***************************************
+     *               PERMIT
+     * **************************************/
+    /**
+     * <p>Permit of an admitted save.</p>
+     */
+    final class Permit {
+
+        //---- Attributes ----
+        private final long bytes;
+        private final AtomicBoolean isReleased = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> lease;
+
+        //---- Constructor ----
+        private Permit(long bytes) {
+            this.bytes = bytes;
+        }
+
+        //---- Methods ----
+        /**
+         * <p>Release the permit, so queued saves can be admitted. Releasing it more than once has no effect.</p>
+         */
+        void release() {
+            if(!isReleased.compareAndSet(false, true))
+                return;
+
+            ScheduledFuture<?> scheduled = lease;
+            if(scheduled != null)
+                scheduled.cancel(false);
+            LfeSaveLimiter.this.release(this);
+        }
+    }
+
+    /* ***************************************
+     *              ADMISSION
+     * **************************************/
+    private static final class Admission {
+
+        //---- Attributes ----
+        private final long bytes;
+        private final CompletableFuture<Optional<Permit>> future = new CompletableFuture<>();
+
+        //---- Constructor ----
+        private Admission(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+}
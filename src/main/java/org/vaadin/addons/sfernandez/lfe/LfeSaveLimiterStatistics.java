@@ -0,0 +1,26 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+/**
+ * <p>Snapshot of the statistics of a {@link LfeSaveLimiter}.</p>
+ * @param inFlightSaves Number of saves admitted that haven't completed yet
+ * @param inFlightBytes Size of the saves admitted that haven't completed yet
+ * @param queuedExplicitSaves Number of explicit saves waiting to be admitted
+ * @param queuedAutosaves Number of autosaves waiting to be admitted
+ * @param shedAutosaves Number of autosaves shed because the limiter was saturated
+ */
+public record LfeSaveLimiterStatistics(
+        int inFlightSaves,
+        long inFlightBytes,
+        int queuedExplicitSaves,
+        int queuedAutosaves,
+        long shedAutosaves
+) {
+
+    /**
+     * @return the number of saves waiting to be admitted
+     */
+    public int queueDepth() {
+        return queuedExplicitSaves + queuedAutosaves;
+    }
+
+}
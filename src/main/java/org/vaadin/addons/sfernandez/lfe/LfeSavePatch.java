@@ -0,0 +1,66 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import java.util.Optional;
+
+/**
+ * <p>Edit script that transforms the last written content of a file into a new one: the range [start, end) of the
+ * last written content is replaced by the inserted text.</p>
+ * <p>The range is found skipping the common prefix and suffix of both contents, so a single contiguous edit is
+ * described with the minimum payload. Several distant edits are described as one range that covers all of them.</p>
+ * @param start Index of the last written content where the replaced range starts
+ * @param end Index of the last written content where the replaced range ends, exclusive
+ * @param insert Text that replaces the range
+ */
+record LfeSavePatch(int start, int end, String insert) {
+
+    //---- Constants and Definitions ----
+    /** Max fraction of the new content that a patch may send to be worth sending instead of the whole content */
+    static final double MAX_WORTHWHILE_FRACTION = 0.5;
+
+    //---- Methods ----
+    /**
+     * @param base Last written content
+     * @param content New content
+     * @return the patch that transforms the base into the content
+     */
+    static LfeSavePatch between(final String base, final String content) {
+        int maxCommon = Math.min(base.length(), content.length());
+
+        int prefix = 0;
+        while(prefix < maxCommon && base.charAt(prefix) == content.charAt(prefix))
+            ++prefix;
+
+        int suffix = 0;
+        while(suffix < maxCommon - prefix
+                && base.charAt(base.length() - 1 - suffix) == content.charAt(content.length() - 1 - suffix))
+            ++suffix;
+
+        return new LfeSavePatch(prefix, base.length() - suffix, content.substring(prefix, content.length() - suffix));
+    }
+
+    /**
+     * @param base Last written content. If null, there isn't a base to patch
+     * @param content New content
+     * @return the patch that transforms the base into the content, or empty if there isn't a base or if the patch is
+     * too big to be worth sending instead of the whole content
+     */
+    static Optional<LfeSavePatch> worthSending(final String base, final String content) {
+        if(base == null || content == null)
+            return Optional.empty();
+
+        LfeSavePatch patch = between(base, content);
+
+        return patch.insert().length() <= content.length() * MAX_WORTHWHILE_FRACTION
+                ? Optional.of(patch)
+                : Optional.empty();
+    }
+
+    /**
+     * @param base Content to patch
+     * @return the result of applying this patch to the base
+     */
+    String applyTo(final String base) {
+        return base.substring(0, start) + insert + base.substring(end);
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.StreamRegistration;
+import com.vaadin.flow.server.StreamResource;
+
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Short-lived HTTP resource that serves the content of a save, either text or binary, so the browser can fetch it
+ * and pipe it straight into the file instead of receiving it as a parameter of a JS request.</p>
+ * <p>The content is encoded as UTF-8, and compressed if requested, while it's written in the response, so it's never
+ * copied as a whole. The resource is only reachable from the session that registered it and it must be unregistered
+ * once the save completes.</p>
+ */
+final class LfeSaveStream {
+
+    //---- Constants and Definitions ----
+    static final String RESOURCE_NAME = "lfe-save";
+    static final String CONTENT_TYPE = "application/octet-stream";
+
+    //---- Attributes ----
+    private final StreamRegistration registration;
+
+    //---- Constructor ----
+    private LfeSaveStream(StreamRegistration registration) {
+        this.registration = registration;
+    }
+
+    /**
+     * <p>Register a resource that serves the content in the session of the UI. It must be executed holding the lock of
+     * the session.</p>
+     * @param ui UI whose session will serve the content
+     * @param content Content to serve
+     * @param compression Compression of the served content, null to serve it uncompressed
+     * @return the registered stream
+     */
+    static LfeSaveStream register(final UI ui, final String content, final LfeCompression compression) {
+        return new LfeSaveStream(ui.getSession().getResourceRegistry().registerResource(resourceOf(content, compression)));
+    }
+
+    /**
+     * <p>Register a resource that serves the binary content in the session of the UI, as it is. It must be executed
+     * holding the lock of the session.</p>
+     * @param ui UI whose session will serve the content
+     * @param content Content to serve
+     * @param compression Compression of the served content, null to serve it uncompressed
+     * @return the registered stream
+     */
+    static LfeSaveStream register(final UI ui, final byte[] content, final LfeCompression compression) {
+        return new LfeSaveStream(ui.getSession().getResourceRegistry().registerResource(resourceOf(content, compression)));
+    }
+
+    /**
+     * <p>Register a resource that serves the content read from the stream in the session of the UI, as it is. The
+     * stream is read while the content is served, and closed afterwards. It must be executed holding the lock of the
+     * session.</p>
+     * @param ui UI whose session will serve the content
+     * @param content Stream to read the content from
+     * @param servedBytes Counter where the number of bytes served is set once the whole stream is read
+     * @param compression Compression of the served content, null to serve it uncompressed
+     * @return the registered stream
+     */
+    static LfeSaveStream register(final UI ui, final InputStream content, final AtomicLong servedBytes, final LfeCompression compression) {
+        return new LfeSaveStream(ui.getSession().getResourceRegistry().registerResource(resourceOf(content, servedBytes, compression)));
+    }
+
+    @VisibleForTesting
+    static StreamResource resourceOf(final String content, final LfeCompression compression) {
+        return resourceOf(out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            if(content != null)
+                writer.write(content);
+            writer.flush();
+        }, compression);
+    }
+
+    @VisibleForTesting
+    static StreamResource resourceOf(final byte[] content, final LfeCompression compression) {
+        return resourceOf(out -> {
+            if(content != null)
+                out.write(content);
+        }, compression);
+    }
+
+    @VisibleForTesting
+    static StreamResource resourceOf(final InputStream content, final AtomicLong servedBytes, final LfeCompression compression) {
+        return resourceOf(out -> {
+            try(content) {
+                servedBytes.set(content.transferTo(out));
+            }
+        }, compression);
+    }
+
+    private static StreamResource resourceOf(final LfeCompression.ContentWriter content, final LfeCompression compression) {
+        StreamResource resource = new StreamResource(RESOURCE_NAME, (out, session) -> {
+            if(compression == null)
+                content.writeTo(out);
+            else
+                compression.compress(out, content);
+        });
+        resource.setContentType(CONTENT_TYPE);
+        resource.setCacheTime(0L);
+
+        return resource;
+    }
+
+    //---- Methods ----
+    /**
+     * @return the URL, relative to the application, where the content is served
+     */
+    String url() {
+        return registration.getResourceUri().toString();
+    }
+
+    /**
+     * <p>Stop serving the content. It must be executed holding the lock of the session.</p>
+     */
+    void unregister() {
+        registration.unregister();
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>{@link LfeAutosaveScheduler} with a single timer thread and a bounded pool of workers.</p>
+ * <p>The timer thread only hands the due ticks to the workers, so a slow tick never delays the rest of them. Idle
+ * workers are released after a while, so a JVM without autosave processes running doesn't keep any of them alive.</p>
+ */
+final class LfeSharedAutosaveScheduler
+        implements LfeAutosaveScheduler {
+
+    //---- Constants and Definitions ----
+    private static final long WORKERS_KEEP_ALIVE_SECONDS = 60L;
+
+    private static final class InstanceHolder {
+        private static final LfeSharedAutosaveScheduler INSTANCE =
+                new LfeSharedAutosaveScheduler(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    //---- Attributes ----
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor workers;
+
+    //---- Constructor ----
+    @VisibleForTesting
+    LfeSharedAutosaveScheduler(int numOfWorkers) {
+        timer = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("lfe-autosave-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+
+        workers = new ThreadPoolExecutor(numOfWorkers, numOfWorkers,
+                WORKERS_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                daemonThreadFactory("lfe-autosave-worker"));
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    static LfeSharedAutosaveScheduler instance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        AtomicInteger counter = new AtomicInteger(0);
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    //---- Methods ----
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable tick, final Duration initialDelay, final Duration period) {
+        Tick scheduledTick = new Tick(tick);
+
+        ScheduledFuture<?> scheduled = timer.scheduleAtFixedRate(scheduledTick,
+                initialDelay.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+        scheduledTick.scheduled = scheduled;
+
+        return scheduled;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable tick, final Duration delay) {
+        Tick scheduledTick = new Tick(tick);
+
+        ScheduledFuture<?> scheduled = timer.schedule(scheduledTick, delay.toMillis(), TimeUnit.MILLISECONDS);
+        scheduledTick.scheduled = scheduled;
+
+        return scheduled;
+    }
+
+    /**
+     * @return the max number of threads this scheduler may use, regardless of the number of ticks registered
+     */
+    int maxNumOfThreads() {
+        return 1 + workers.getMaximumPoolSize();
+    }
+
+    @VisibleForTesting
+    int numOfScheduledTicks() {
+        return timer.getQueue().size();
+    }
+
+    /**
+     * <p>Stop the timer and the workers, waiting for their threads to finish. The shared instance is never shut
+     * down.</p>
+     */
+    @VisibleForTesting
+    void shutdown() throws InterruptedException {
+        timer.shutdownNow();
+        workers.shutdownNow();
+
+        timer.awaitTermination(1, TimeUnit.SECONDS);
+        workers.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    /* ***************************************
+     *                 TICK
+     * **************************************/
+    private final class Tick
+            implements Runnable {
+
+        //---- Attributes ----
+        private final Runnable task;
+        private final AtomicBoolean isExecuting = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> scheduled;
+
+        //---- Constructor ----
+        private Tick(Runnable task) {
+            this.task = task;
+        }
+
+        //---- Methods ----
+        @Override
+        public void run() {
+            if(!isExecuting.compareAndSet(false, true))
+                return; // Previous execution hasn't finished yet
+
+            try {
+                workers.execute(this::execute);
+            } catch (RejectedExecutionException e) {
+                isExecuting.set(false);
+            }
+        }
+
+        private void execute() {
+            try {
+                if(scheduled == null || !scheduled.isCancelled())
+                    task.run();
+            } finally {
+                isExecuting.set(false);
+            }
+        }
+    }
+
+}
@@ -14,18 +14,21 @@ public class LfeState {
     private final FileInfo openedFile;
     private final LocalDateTime lastSaveTime;
     private final String lastSaveData;
+    private final LazyFingerprint lastSaveFingerprint;
 
     //---- Constructor ----
     public LfeState() {
-        this(false, false, null, null, null);
+        this(false, false, null, null, null, null);
     }
 
-    private LfeState(boolean editorIsWorking, boolean autosaveIsWorking, FileInfo openedFile, LocalDateTime lastSaveTime, String lastSaveData) {
+    private LfeState(boolean editorIsWorking, boolean autosaveIsWorking, FileInfo openedFile, LocalDateTime lastSaveTime,
+                     String lastSaveData, LazyFingerprint lastSaveFingerprint) {
         this.editorIsWorking = editorIsWorking;
         this.autosaveIsWorking = autosaveIsWorking;
         this.openedFile = openedFile;
         this.lastSaveTime = lastSaveTime;
         this.lastSaveData = lastSaveData;
+        this.lastSaveFingerprint = lastSaveFingerprint;
     }
 
     //---- Methods ----
@@ -53,13 +56,22 @@ public class LfeState {
         return Optional.ofNullable(lastSaveData);
     }
 
+    /**
+     * <p>The fingerprint is computed the first time it's requested, so the saves don't pay for it unless it's used.</p>
+     * @return the fingerprint of the last saved content
+     */
+    public Optional<LfeFingerprint> lastSaveFingerprint() {
+        return Optional.ofNullable(lastSaveFingerprint).map(LazyFingerprint::get);
+    }
+
     public LfeState withEditorIsWorking(boolean editorIsWorking) {
         return new LfeState(
                 editorIsWorking,
                 autosaveIsWorking,
                 openedFile,
                 lastSaveTime,
-                lastSaveData
+                lastSaveData,
+                lastSaveFingerprint
         );
     }
 
@@ -69,7 +81,8 @@ public class LfeState {
                 autosaveIsWorking,
                 openedFile,
                 lastSaveTime,
-                lastSaveData
+                lastSaveData,
+                lastSaveFingerprint
         );
     }
 
@@ -79,7 +92,8 @@ public class LfeState {
                 autosaveIsWorking,
                 openedFile,
                 lastSaveTime,
-                lastSaveData
+                lastSaveData,
+                lastSaveFingerprint
         );
     }
 
@@ -89,7 +103,8 @@ public class LfeState {
                 autosaveIsWorking,
                 openedFile,
                 lastSaveTime,
-                lastSaveData
+                lastSaveData,
+                lastSaveFingerprint
         );
     }
 
@@ -99,10 +114,51 @@ public class LfeState {
                 autosaveIsWorking,
                 openedFile,
                 lastSaveTime,
-                lastSaveData
+                lastSaveData,
+                lastSaveFingerprint
+        );
+    }
+
+    public LfeState withLastSaveFingerprint(LfeFingerprint lastSaveFingerprint) {
+        return new LfeState(
+                editorIsWorking,
+                autosaveIsWorking,
+                openedFile,
+                lastSaveTime,
+                lastSaveData,
+                lastSaveFingerprint == null ? null : new LazyFingerprint(lastSaveFingerprint)
+        );
+    }
+
+    /**
+     * @param lastSaveContent Last saved content, fingerprinted only once its fingerprint is requested
+     * @return a copy of this state with the fingerprint of the content
+     */
+    LfeState withLastSaveFingerprintOf(CharSequence lastSaveContent) {
+        return new LfeState(
+                editorIsWorking,
+                autosaveIsWorking,
+                openedFile,
+                lastSaveTime,
+                lastSaveData,
+                lastSaveContent == null ? null : new LazyFingerprint(lastSaveContent)
         );
     }
 
+    /**
+     * <p>Copy of this state with the data and the fingerprint of the last save. If the data is retained, the
+     * fingerprint is computed lazily from it. Otherwise, it's computed now, so the state doesn't keep any reference to
+     * the saved content.</p>
+     * @param lastSaveContent Last saved content
+     * @param retainContent true to keep the content as {@link #lastSaveData()}
+     * @return a copy of this state with the last save
+     */
+    LfeState withLastSaveOf(String lastSaveContent, boolean retainContent) {
+        return retainContent
+                ? withLastSaveData(lastSaveContent).withLastSaveFingerprintOf(lastSaveContent)
+                : withLastSaveData(null).withLastSaveFingerprint(lastSaveContent == null ? null : LfeFingerprint.of(lastSaveContent));
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (!(o instanceof LfeState lfeState)) return false;
@@ -111,7 +167,8 @@ public class LfeState {
                 && autosaveIsWorking == lfeState.autosaveIsWorking
                 && Objects.equals(openedFile, lfeState.openedFile)
                 && Objects.equals(lastSaveTime, lfeState.lastSaveTime)
-                && Objects.equals(lastSaveData, lfeState.lastSaveData);
+                && Objects.equals(lastSaveData, lfeState.lastSaveData)
+                && Objects.equals(lastSaveFingerprint, lfeState.lastSaveFingerprint);
     }
 
     @Override
@@ -121,6 +178,7 @@ public class LfeState {
         result = 31 * result + Objects.hashCode(openedFile);
         result = 31 * result + Objects.hashCode(lastSaveTime);
         result = 31 * result + Objects.hashCode(lastSaveData);
+        result = 31 * result + Objects.hashCode(lastSaveFingerprint);
         return result;
     }
 
@@ -132,6 +190,48 @@ public class LfeState {
                 ", openedFile=" + openedFile +
                 ", lastSaveTime=" + lastSaveTime +
                 ", lastSaveData='" + lastSaveData + '\'' +
+                ", lastSaveFingerprint=" + lastSaveFingerprint() +
                 '}';
     }
+
+    /* ***************************************
+     *           LAZY FINGERPRINT
+     * **************************************/
+    private static final class LazyFingerprint {
+
+        //---- Attributes ----
+        private CharSequence content;
+        private LfeFingerprint fingerprint;
+
+        //---- Constructor ----
+        private LazyFingerprint(CharSequence content) {
+            this.content = content;
+        }
+
+        private LazyFingerprint(LfeFingerprint fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        //---- Methods ----
+        private synchronized LfeFingerprint get() {
+            if(fingerprint == null) {
+                fingerprint = LfeFingerprint.of(content);
+                content = null; // Not retained once it's fingerprinted
+            }
+
+            return fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o
+                    || (o instanceof LazyFingerprint other && get().equals(other.get()));
+        }
+
+        @Override
+        public int hashCode() {
+            return get().hashCode();
+        }
+    }
+
 }
@@ -0,0 +1,163 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileInfo;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceEntry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * <p>Directory of the user opened with a {@link LiveFileEditor}, whose files can be opened in the editor without
+ * showing a file picker.</p>
+ * <p>The tree is enumerated lazily: only the directories that are listed are iterated by the browser, page by page,
+ * and their entries are cached in the server, so listing them again doesn't cost a round trip. Use
+ * {@link #forget(String)} to list a directory again once it has changed.</p>
+ * <p>Paths are relative to the root of the workspace, with their names separated by '/'. The root is the empty
+ * path.</p>
+ * <p>An editor can have several workspaces opened at the same time: each one is kept by its own id in the browser,
+ * so closing one doesn't affect the others.</p>
+ */
+public final class LfeWorkspace {
+
+    //---- Constants and Definitions ----
+    static final int PAGE_SIZE = 500; // Entries per page of a directory listing or of an index refresh
+
+    //---- Attributes ----
+    private final LiveFileEditor editor;
+    private final String id;
+    private final String name;
+    private final Map<String, List<WorkspaceEntry>> listings = new ConcurrentHashMap<>();
+    private final LfeWorkspaceIndex index;
+    private volatile boolean isClosed = false;
+
+    //---- Constructor ----
+    LfeWorkspace(LiveFileEditor editor, String id, String name) {
+        this.editor = editor;
+        this.id = id;
+        this.name = name;
+        this.index = new LfeWorkspaceIndex(editor, id);
+    }
+
+    //---- Methods ----
+    /**
+     * @return the name of the root directory of the workspace
+     */
+    public String name() {
+        return name;
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    private void assertIsOpen() {
+        if(isClosed)
+            throw new LfeException("Error. The workspace has been closed.");
+    }
+
+    /**
+     * @param path Path of the directory
+     * @return a future completed with the entries of the directory
+     * @see #list(String, Consumer)
+     */
+    public CompletableFuture<List<WorkspaceEntry>> list(final String path) {
+        return list(path, page -> {});
+    }
+
+    /**
+     * <p>List the entries of a directory of the workspace, without its subdirectories. If the directory was listed
+     * before, the cached entries are returned without asking the browser.</p>
+     * @param path Path of the directory
+     * @param onPage Receives each page of entries as soon as it arrives, holding the lock of the session
+     * @return a future completed with the entries of the directory, in the order they were iterated
+     */
+    public CompletableFuture<List<WorkspaceEntry>> list(final String path, final Consumer<List<WorkspaceEntry>> onPage) {
+        assertIsOpen();
+        String directory = normalize(path);
+
+        List<WorkspaceEntry> cached = listings.get(directory);
+        if(cached != null) {
+            onPage.accept(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return editor.listWorkspaceDirectory(id, directory, PAGE_SIZE, onPage)
+                .thenApply(entries -> {
+                    List<WorkspaceEntry> listed = List.copyOf(entries);
+                    if(!isClosed)
+                        listings.put(directory, listed);
+                    return listed;
+                });
+    }
+
+    /**
+     * @param path Path of the directory
+     * @return the cached entries of the directory, or empty if it hasn't been listed yet
+     */
+    public Optional<List<WorkspaceEntry>> cached(final String path) {
+        return Optional.ofNullable(listings.get(normalize(path)));
+    }
+
+    /**
+     * <p>Forget the cached entries of a directory and of all its subdirectories, so they are listed again by the
+     * browser the next time.</p>
+     * @param path Path of the directory
+     */
+    public void forget(final String path) {
+        String directory = normalize(path);
+
+        if(directory.isEmpty())
+            listings.clear();
+        else
+            listings.keySet().removeIf(listed -> listed.equals(directory) || listed.startsWith(directory + "/"));
+    }
+
+    /**
+     * @return the index of the files of the workspace, empty until it's refreshed
+     * @see LfeWorkspaceIndex#refresh()
+     */
+    public LfeWorkspaceIndex index() {
+        assertIsOpen();
+
+        return index;
+    }
+
+    /**
+     * <p>Open a file of the workspace in the editor, as if it had been picked with {@link LiveFileEditor#openFile()}.
+     * No file picker is shown.</p>
+     * @param path Path of the file
+     * @return a future completed with the opened file, or empty if the opening failed
+     */
+    public CompletableFuture<Optional<FileInfo>> openFile(final String path) {
+        assertIsOpen();
+
+        return editor.openWorkspaceFile(id, normalize(path));
+    }
+
+    /**
+     * <p>Close the workspace, forgetting the directory in the browser, the cached entries and the index. The file
+     * opened from the workspace remains opened in the editor.</p>
+     */
+    public void close() {
+        if(isClosed)
+            return;
+
+        isClosed = true;
+        listings.clear();
+        index.clear();
+        editor.closeWorkspace(id);
+    }
+
+    private String normalize(final String path) {
+        if(path == null)
+            return "";
+
+        return path.replaceAll("^/+|/+$", "");
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceIndexChanges;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceIndexEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Index of the files of a {@link LfeWorkspace}: the size, the last modification and the fingerprint of the content
+ * of each file, by its path.</p>
+ * <p>It's refreshed incrementally. The browser keeps the index of the last refresh received by the server and
+ * compares the files against it: only the files whose size or last modification have changed are read to
+ * fingerprint them, and only the rows that have changed are sent to the server. The whole tree is still walked to
+ * know the size and the last modification of each file, since the browser doesn't notify the changes of a
+ * directory, but no content of an unchanged file is read nor sent. The first refresh sends every file.</p>
+ * <p>The fingerprint of a file is the SHA-256 of the concatenated SHA-256 of each 8 MiB chunk of its content, so
+ * huge files are fingerprinted without reading them whole in memory. A file or directory that can't be read doesn't
+ * fail the refresh: it's reported in {@link WorkspaceIndexChanges#failed()} and its entries are kept as they
+ * were.</p>
+ */
+public final class LfeWorkspaceIndex {
+
+    //---- Attributes ----
+    private final LiveFileEditor editor;
+    private final String workspaceId;
+    private final Map<String, WorkspaceIndexEntry> entries = new ConcurrentHashMap<>();
+    private CompletableFuture<WorkspaceIndexChanges> refreshing = null;
+
+    //---- Constructor ----
+    LfeWorkspaceIndex(LiveFileEditor editor, String workspaceId) {
+        this.editor = editor;
+        this.workspaceId = workspaceId;
+    }
+
+    //---- Methods ----
+    /**
+     * @param path Path of the file
+     * @return the entry of the file, or empty if it isn't indexed
+     */
+    public Optional<WorkspaceIndexEntry> get(final String path) {
+        return Optional.ofNullable(entries.get(path));
+    }
+
+    /**
+     * @return a read-only view of the entries of the index, by their path
+     */
+    public Map<String, WorkspaceIndexEntry> entries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * <p>Refresh the index with the files that have changed since the last refresh. If a refresh is already in
+     * progress, it's returned instead of starting another one.</p>
+     * @return a future completed with the changes applied to the index
+     */
+    public synchronized CompletableFuture<WorkspaceIndexChanges> refresh() {
+        if(refreshing != null && !refreshing.isDone())
+            return refreshing;
+
+        refreshing = editor.refreshWorkspaceIndex(workspaceId, LfeWorkspace.PAGE_SIZE)
+                .thenApply(pages -> {
+                    WorkspaceIndexChanges changes = merge(pages);
+                    apply(changes);
+                    return changes;
+                });
+
+        return refreshing;
+    }
+
+    private WorkspaceIndexChanges merge(final List<WorkspaceIndexChanges> pages) {
+        List<WorkspaceIndexEntry> updated = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        Map<String, LfeError> failed = new LinkedHashMap<>();
+
+        for(WorkspaceIndexChanges page : pages) {
+            updated.addAll(page.updated());
+            removed.addAll(page.removed());
+            failed.putAll(page.failed());
+        }
+
+        return new WorkspaceIndexChanges(List.copyOf(updated), List.copyOf(removed), Collections.unmodifiableMap(failed));
+    }
+
+    @VisibleForTesting
+    void apply(final WorkspaceIndexChanges changes) {
+        changes.removed().forEach(entries::remove);
+        changes.updated().forEach(entry -> entries.put(entry.path(), entry));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+}
@@ -3,24 +3,59 @@ package org.vaadin.addons.sfernandez.lfe;
 import com.google.common.annotations.VisibleForTesting;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.HasEnabled;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.dependency.JsModule;
+import elemental.json.Json;
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.error.LfeOperationException;
 import org.vaadin.addons.sfernandez.lfe.events.*;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileBytes;
 import org.vaadin.addons.sfernandez.lfe.parameters.FileInfo;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileStream;
 import org.vaadin.addons.sfernandez.lfe.parameters.OptionsCreateFile;
 import org.vaadin.addons.sfernandez.lfe.parameters.OptionsHandlingFilePicker;
 import org.vaadin.addons.sfernandez.lfe.parameters.OptionsOpenFile;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceEntry;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceIndexChanges;
 import org.vaadin.addons.sfernandez.lfe.setup.LfeSetup;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @JsModule("./src/live-file-editor.js")
 public class LiveFileEditor {
 
+    //---- Constants and Definitions ----
+    private static final int MAX_STREAM_LOOKAHEAD = 1024 * 1024;
+    private static final long MIN_STREAM_RESERVATION = 1024 * 1024; // Bytes a stream of unknown size is admitted with
+
+    private static final class UploadReadersHolder {
+        // Reading an upload blocks until the browser sends it, so it has its own threads instead of the common pool ones
+        private static final Executor UPLOAD_READERS = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "lfe-upload-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     //---- Attributes ----
     private final String uuid = UUID.randomUUID().toString().substring(0, 32);
     private final Component attachment;
@@ -32,8 +67,15 @@ public class LiveFileEditor {
     private final LfeJsParameterHandler jsParameterHandler = new LfeJsParameterHandler();
     private final LfeObserver observer = new LfeObserver();
     private final LfeAutosave autosave = new LfeAutosave(this);
+    private final LfeSaveCoordinator saveCoordinator = new LfeSaveCoordinator(this::writeFile);
+    private final LfeCompression compression = new LfeCompression();
+    private final Set<LfeSaveLimiter.Permit> heldPermits = ConcurrentHashMap.newKeySet();
     private LfeState state = new LfeState();
 
+    private int lastWriteVersion = 0;
+    private String lastWrittenContent = null;
+    private final AtomicLong openedFiles = new AtomicLong(); // Changes each time a file is opened or closed, to detect stale channels
+
     //---- Constructor ----
     @VisibleForTesting
     LiveFileEditor(Component attachment, LfeOperationHandler operationHandler) {
@@ -49,7 +91,10 @@ public class LiveFileEditor {
 
     private void init() {
         attachment.addAttachListener(attach -> start());
-        attachment.addDetachListener(detach -> stop());
+        attachment.addDetachListener(detach -> {
+            stop();
+            attachment.getUI().ifPresent(this::forgetInBrowser);
+        });
     }
 
     private void start() {
@@ -65,11 +110,22 @@ public class LiveFileEditor {
         if(autosave().isWorking())
             autosave().stop();
 
+        // The browser won't answer the saves still in flight, so their permits are given back right now and they
+        // don't block the writes once the editor works again
+        heldPermits.forEach(this::releasePermit);
+        saveCoordinator.abort(new LfeOperationException(
+                new LfeError(LfeError.Type.Saving.ABORT, "The editor stopped before the write completed")));
+
         isWorking = false;
         notifyWorkingStateChanged();
         updateState();
     }
 
+    private void forgetInBrowser(final UI ui) {
+        // The detached element can't run JS anymore, so the state of the editor in the browser is freed through the page
+        ui.getPage().executeJs("forgetEditor($0)", uuid);
+    }
+
     private void notifyWorkingStateChanged() {
         observer.notifyWorkingStateChangeEvent(new LfeWorkingStateChangeEvent(isWorking));
     }
@@ -133,6 +189,7 @@ public class LiveFileEditor {
         assertIsWorking();
         prepareOptions(options);
 
+        forgetLastWrite();
         CompletableFuture<LfeCreateFileEvent> creating = operationHandler.treatCreateFileJsRequest(sendCreateFileJsRequest(options));
 
         creating.thenAccept(observer::notifyCreateFileEvent);
@@ -149,7 +206,7 @@ public class LiveFileEditor {
         assertAttachmentIsReadyToSendJsRequest();
 
         return attachment.getElement()
-                .executeJs("return await createFile($0);",
+                .executeJs("return await createFile($0, $1);", uuid,
                         jsParameterHandler.mapToJson(options))
                 .toCompletableFuture();
     }
@@ -166,7 +223,12 @@ public class LiveFileEditor {
         assertIsWorking();
         prepareOptions(options);
 
-        CompletableFuture<LfeOpenFileEvent> opening = operationHandler.treatOpenFileJsRequest(sendOpenFileJsRequest(options));
+        forgetLastWrite();
+        return treatOpening(sendOpenFileJsRequest(options));
+    }
+
+    private CompletableFuture<Optional<FileInfo>> treatOpening(final CompletableFuture<JsonValue> jsonResponse) {
+        CompletableFuture<LfeOpenFileEvent> opening = operationHandler.treatOpenFileJsRequest(jsonResponse);
 
         opening.thenAccept(observer::notifyOpenFileEvent);
         opening.thenAccept(this::updateState);
@@ -182,18 +244,374 @@ public class LiveFileEditor {
         assertAttachmentIsReadyToSendJsRequest();
 
         return attachment.getElement()
-                .executeJs("return await openFile($0);",
+                .executeJs("return await openFile($0, $1);", uuid,
                         jsParameterHandler.mapToJson(options))
                 .toCompletableFuture();
     }
 
+    /**
+     * <p>Read the current content of the opened file. It's useful to get the content of a file opened with
+     * {@link OptionsOpenFile#setMetadataOnly(boolean)} only once it's needed.</p>
+     * <p>The content is read from the file each time, so it includes the changes made outside the editor. No open
+     * event is fired.</p>
+     * @return a future completed with the content of the file, or empty if it couldn't be read
+     */
+    public CompletableFuture<Optional<String>> readFileContent() {
+        assertIsWorking();
+
+        return operationHandler.treatOpenFileJsRequest(sendReadFileContentJsRequest())
+                .thenApply(event -> event.fileInfo().map(FileInfo::content));
+    }
+
+    private CompletableFuture<JsonValue> sendReadFileContentJsRequest() {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return await readFileContent($0);", uuid)
+                .toCompletableFuture();
+    }
+
+    /**
+     * <p>Open a file whose content is uploaded by the browser to the server as a stream, instead of being sent as a
+     * whole in the file info. It's useful to read large files without holding them in memory.</p>
+     * <p>The content must be read from a thread different from the one that holds the lock of the session, since the
+     * upload waits while the content isn't read. The content must be closed once it's no longer read: an upload that
+     * waits for a reader that doesn't consume anything for a minute fails. The {@link FileInfo#content()} of the
+     * opened file is null.</p>
+     * @return a future completed with the opened file, or empty if the opening failed
+     */
+    public CompletableFuture<Optional<FileStream>> openFileAsStream() {
+        OptionsOpenFile options = new OptionsOpenFile();
+        options.setExcludeAcceptAllOption(!setup.isAllFileTypesAllowed());
+        options.setAllowedFileTypes(setup.getAllowedFileTypes());
+
+        return openFileAsStream(options);
+    }
+
+    /**
+     * @param options Options of the file picker
+     * @return a future completed with the opened file, or empty if the opening failed
+     * @see #openFileAsStream()
+     */
+    public CompletableFuture<Optional<FileStream>> openFileAsStream(final OptionsOpenFile options) {
+        assertIsWorking();
+        prepareOptions(options);
+
+        forgetLastWrite();
+        LfeOpenStream stream = registerOpenStream();
+        CompletableFuture<LfeOpenFileEvent> opening = operationHandler.treatOpenFileJsRequest(sendOpenFileStreamingJsRequest(options, stream)
+                .thenApply(json -> {
+                    stream.announce(jsParameterHandler.mapToFileLength(json), jsParameterHandler.isCompressed(json));
+                    return json;
+                }));
+
+        opening.whenComplete((event, error) -> {
+            if(error != null || event.failed())
+                stream.cancel("The file couldn't be opened.");
+        });
+        opening.thenAccept(observer::notifyOpenFileEvent);
+        opening.thenAccept(this::updateState);
+        opening.thenAccept(event -> {
+            if(!event.failed() && autosave().isEnabled())
+                autosave().start();
+        });
+
+        return opening.thenApply(event -> event.fileInfo().map(info -> new FileStream(info, stream.length(), stream.content())));
+    }
+
+    private LfeOpenStream registerOpenStream() {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return LfeOpenStream.register(attachment.getElement(), compression);
+    }
+
+    private CompletableFuture<JsonValue> sendOpenFileStreamingJsRequest(final OptionsOpenFile options, final LfeOpenStream stream) {
+        return attachment.getElement()
+                .executeJs("return await openFileStreaming($0, $1, this, $2, $3, $4);", uuid,
+                        jsParameterHandler.mapToJson(options), stream.attribute(),
+                        (double) setup.getCompressionThreshold(), LfeCompression.FORMAT)
+                .toCompletableFuture();
+    }
+
+    /**
+     * <p>Open a file and read its content as it is, without decoding it as text. It's uploaded by the browser to the
+     * server as raw bytes, so it's never inflated nor copied into a JS response.</p>
+     * <p>The returned future is completed once the whole content has been uploaded. The {@link FileInfo#content()} of
+     * the opened file is null.</p>
+     * @return a future completed with the opened file, or empty if the opening or the upload failed
+     */
+    public CompletableFuture<Optional<FileBytes>> openFileAsBytes() {
+        OptionsOpenFile options = new OptionsOpenFile();
+        options.setExcludeAcceptAllOption(!setup.isAllFileTypesAllowed());
+        options.setAllowedFileTypes(setup.getAllowedFileTypes());
+
+        return openFileAsBytes(options);
+    }
+
+    /**
+     * <p>The upload is read by a thread of a pool dedicated to it.</p>
+     * @param options Options of the file picker
+     * @return a future completed with the opened file, or empty if the opening or the upload failed
+     * @see #openFileAsBytes()
+     */
+    public CompletableFuture<Optional<FileBytes>> openFileAsBytes(final OptionsOpenFile options) {
+        return openFileAsBytes(options, UploadReadersHolder.UPLOAD_READERS);
+    }
+
+    /**
+     * @param options Options of the file picker
+     * @param executor Executor that reads the upload. Its thread is blocked until the whole content is uploaded
+     * @return a future completed with the opened file, or empty if the opening or the upload failed
+     * @see #openFileAsBytes()
+     */
+    public CompletableFuture<Optional<FileBytes>> openFileAsBytes(final OptionsOpenFile options, final Executor executor) {
+        if(executor == null)
+            throw new LfeException("Error. Executor can't be null");
+
+        return openFileAsStream(options).thenCompose(opened -> opened.isEmpty()
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : CompletableFuture.supplyAsync(() -> readAllBytes(opened.get()), executor)); // Not read in the thread holding the lock, the upload needs it
+    }
+
+    private Optional<FileBytes> readAllBytes(final FileStream file) {
+        try(InputStream content = file.content()) {
+            return Optional.of(new FileBytes(file.info(), content.readAllBytes()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * <p>Open several files at once. The browser reads them concurrently and sends each one to the server as soon as
+     * it's read, so the slowest file doesn't delay the rest.</p>
+     * <p>The files are read-only snapshots: none of them becomes the opened file of the editor and no open event is
+     * fired.</p>
+     * @return a future completed with the files read, sorted as they were picked. The files that couldn't be read
+     * are left out
+     */
+    public CompletableFuture<List<FileInfo>> openFiles() {
+        OptionsOpenFile options = new OptionsOpenFile();
+        options.setExcludeAcceptAllOption(!setup.isAllFileTypesAllowed());
+        options.setAllowedFileTypes(setup.getAllowedFileTypes());
+
+        return openFiles(options, file -> {});
+    }
+
+    /**
+     * @param options Options of the file picker. The multiple selection is always enabled
+     * @param onFileRead Receives each file as soon as it's read, holding the lock of the session
+     * @return a future completed with the files read, sorted as they were picked
+     * @see #openFiles()
+     */
+    public CompletableFuture<List<FileInfo>> openFiles(final OptionsOpenFile options, final Consumer<FileInfo> onFileRead) {
+        assertIsWorking();
+        prepareOptions(options);
+        options.setMultipleSelection(true);
+
+        assertAttachmentIsReadyToSendJsRequest();
+
+        LfePagedEvents<FileInfo> reading = LfePagedEvents.register(attachment.getElement(), LfePagedEvents.FILE_READ_EVENT,
+                jsParameterHandler::mapToFilesRead, files -> files.forEach(onFileRead));
+        receivePages(reading, sendOpenFilesJsRequest(options, reading));
+
+        return reading.items();
+    }
+
+    private CompletableFuture<JsonValue> sendOpenFilesJsRequest(final OptionsOpenFile options, final LfePagedEvents<?> reading) {
+        return attachment.getElement()
+                .executeJs("return await openFiles($0, $1, this, $2);", uuid,
+                        jsParameterHandler.mapToJson(options), reading.id())
+                .toCompletableFuture();
+    }
+
+    /**
+     * <p>Open a directory of the user as a workspace, whose files can be opened later without a file picker. Only
+     * the directory handle is kept in the browser: its entries are enumerated once they're listed.</p>
+     * @return a future completed with the opened workspace, or completed exceptionally if the directory couldn't be
+     * opened
+     */
+    public CompletableFuture<LfeWorkspace> openWorkspace() {
+        assertIsWorking();
+
+        // Each workspace is kept by its id in the browser, so the ones opened before remain usable
+        String workspaceId = UUID.randomUUID().toString();
+        return operationHandler.treatOpenWorkspaceJsRequest(sendOpenWorkspaceJsRequest(workspaceId))
+                .thenApply(name -> new LfeWorkspace(this, workspaceId, name));
+    }
+
+    private CompletableFuture<JsonValue> sendOpenWorkspaceJsRequest(final String workspaceId) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return await openWorkspace($0, $1, $2);", uuid, workspaceId,
+                        setup.isRememberLastDirectory() ? uuid : null)
+                .toCompletableFuture();
+    }
+
+    CompletableFuture<List<WorkspaceEntry>> listWorkspaceDirectory(final String workspaceId, final String path, final int pageSize,
+                                                                   final Consumer<List<WorkspaceEntry>> onPage) {
+        assertIsWorking();
+        assertAttachmentIsReadyToSendJsRequest();
+
+        LfePagedEvents<WorkspaceEntry> listing = LfePagedEvents.register(attachment.getElement(), LfePagedEvents.DIRECTORY_PAGE_EVENT,
+                detail -> jsParameterHandler.mapToWorkspaceEntries(path, detail.get("entries")), onPage);
+        receivePages(listing, sendListWorkspaceDirectoryJsRequest(workspaceId, path, pageSize, listing));
+
+        return listing.items();
+    }
+
+    private void receivePages(final LfePagedEvents<?> paged, final CompletableFuture<JsonValue> jsonResponse) {
+        operationHandler.treatPagedJsRequest(jsonResponse)
+                .whenComplete((pages, error) -> {
+                    if(error != null)
+                        paged.fail(error);
+                    else
+                        paged.onNotified(pages);
+                });
+    }
+
+    private CompletableFuture<JsonValue> sendListWorkspaceDirectoryJsRequest(final String workspaceId, final String path,
+                                                                             final int pageSize, final LfePagedEvents<?> listing) {
+        return attachment.getElement()
+                .executeJs("return await listWorkspaceDirectory($0, $1, $2, this, $3, $4);", uuid, workspaceId, path,
+                        listing.id(), pageSize)
+                .toCompletableFuture();
+    }
+
+    CompletableFuture<List<WorkspaceIndexChanges>> refreshWorkspaceIndex(final String workspaceId, final int pageSize) {
+        assertIsWorking();
+        assertAttachmentIsReadyToSendJsRequest();
+
+        LfePagedEvents<WorkspaceIndexChanges> refresh = LfePagedEvents.register(attachment.getElement(), LfePagedEvents.INDEX_PAGE_EVENT,
+                detail -> List.of(jsParameterHandler.mapToWorkspaceIndexChanges(detail.get("rows"))), page -> {});
+        receivePages(refresh, sendRefreshWorkspaceIndexJsRequest(workspaceId, pageSize, refresh));
+
+        // Once received, the browser compares the next refresh against this one
+        refresh.items().thenRun(() -> attachment.getElement()
+                .executeJs("commitWorkspaceIndex($0, $1, $2)", uuid, workspaceId, refresh.id()));
+
+        return refresh.items();
+    }
+
+    private CompletableFuture<JsonValue> sendRefreshWorkspaceIndexJsRequest(final String workspaceId, final int pageSize,
+                                                                            final LfePagedEvents<?> refresh) {
+        return attachment.getElement()
+                .executeJs("return await refreshWorkspaceIndex($0, $1, this, $2, $3);", uuid, workspaceId, refresh.id(), pageSize)
+                .toCompletableFuture();
+    }
+
+    CompletableFuture<Optional<FileInfo>> openWorkspaceFile(final String workspaceId, final String path) {
+        assertIsWorking();
+
+        forgetLastWrite();
+        return treatOpening(sendOpenWorkspaceFileJsRequest(workspaceId, path));
+    }
+
+    private CompletableFuture<JsonValue> sendOpenWorkspaceFileJsRequest(final String workspaceId, final String path) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return await openWorkspaceFile($0, $1, $2);", uuid, workspaceId, path)
+                .toCompletableFuture();
+    }
+
+    void closeWorkspace(final String workspaceId) {
+        if(isNotWorking())
+            return;
+
+        attachment.getElement().executeJs("closeWorkspace($0, $1)", uuid, workspaceId);
+    }
+
+    /**
+     * <p>Open a read-only channel over the opened file, that only transfers the regions of the file that are read. It's
+     * useful to show a few pages of huge files.</p>
+     * <p>The file is read by blocks through {@code File.slice} in the browser, which are cached and requested in
+     * advance while the file is read sequentially. The channel must be read from a thread different from the one
+     * that holds the lock of the session, and the UI must have push or polling enabled, since the reads are requested
+     * to the browser from that thread.</p>
+     * <p>The channel belongs to the file opened when it's opened, with the size it had then. Once another file is
+     * opened or the file is closed, its reads fail.</p>
+     * @return a future completed with the channel, or empty if there is no opened file
+     */
+    public CompletableFuture<Optional<SeekableByteChannel>> openChannel() {
+        assertIsWorking();
+
+        UI ui = attachment.getUI()
+                .orElseThrow(() -> new LfeException("Error. It's not possible to read the file due to the editor isn't attached to an UI."));
+        AtomicLong size = new AtomicLong(0L);
+        long openedFile = openedFiles.get();
+        CompletableFuture<LfeOpenFileEvent> reading = operationHandler.treatOpenFileJsRequest(sendGetFileInfoJsRequest()
+                .thenApply(json -> {
+                    size.set(jsParameterHandler.mapToFileLength(json));
+                    return json;
+                }));
+
+        return reading.thenApply(event -> event.failed()
+                ? Optional.empty()
+                : Optional.of(new LfeFileChannel(size.get(), (start, length) -> openedFile == openedFiles.get()
+                        ? readFileSlice(ui, start, length)
+                        : CompletableFuture.failedFuture(new LfeOperationException(new LfeError(LfeError.Type.Opening.MISSING_FILE,
+                                "The file of the channel isn't opened anymore."))))));
+    }
+
+    private CompletableFuture<JsonValue> sendGetFileInfoJsRequest() {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return await getFileInfo($0);", uuid)
+                .toCompletableFuture();
+    }
+
+    private CompletableFuture<byte[]> readFileSlice(final UI ui, final long start, final int length) {
+        CompletableFuture<byte[]> reading = new CompletableFuture<>();
+
+        try {
+            ui.access(() -> {
+                try {
+                    operationHandler.treatReadFileSliceJsRequest(sendReadFileSliceJsRequest(start, length))
+                            .whenComplete((bytes, error) -> {
+                                if(error != null)
+                                    reading.completeExceptionally(error);
+                                else
+                                    reading.complete(bytes);
+                            });
+                } catch (RuntimeException e) {
+                    reading.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            reading.completeExceptionally(e);
+        }
+
+        return reading;
+    }
+
+    private CompletableFuture<JsonValue> sendReadFileSliceJsRequest(final long start, final int length) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return await readFileSlice($0, $1, $2);", uuid, (double) start, (double) (start + length))
+                .toCompletableFuture();
+    }
+
     public CompletableFuture<Optional<FileInfo>> closeFile() {
+        return closeFile(false);
+    }
+
+    /**
+     * <p>Close the opened file. By default, only the name, size and type of the closed file are returned, without
+     * reading the file again, so the {@link FileInfo#content()} is null.</p>
+     * @param withContent true to read the final content of the file and return it in the file info
+     * @return a future completed with the closed file, or empty if the closing failed
+     */
+    public CompletableFuture<Optional<FileInfo>> closeFile(final boolean withContent) {
         assertIsWorking();
 
         if(autosave().isWorking())
             autosave().stop();
 
-        CompletableFuture<LfeCloseFileEvent> closing = operationHandler.treatCloseFileJsRequest(sendCloseFileJsRequest());
+        forgetLastWrite();
+        CompletableFuture<LfeCloseFileEvent> closing = operationHandler.treatCloseFileJsRequest(sendCloseFileJsRequest(withContent));
 
         closing.thenAccept(observer::notifyCloseFileEvent);
         closing.thenAccept(this::updateState);
@@ -201,37 +619,442 @@ public class LiveFileEditor {
         return closing.thenApply(LfeCloseFileEvent::fileInfo);
     }
 
-    private CompletableFuture<JsonValue> sendCloseFileJsRequest() {
+    private CompletableFuture<JsonValue> sendCloseFileJsRequest(final boolean withContent) {
         assertAttachmentIsReadyToSendJsRequest();
 
         return attachment.getElement()
-                .executeJs("return await closeFile();")
+                .executeJs("return await closeFile($0, $1);", uuid, withContent)
                 .toCompletableFuture();
     }
 
     public CompletableFuture<Optional<String>> saveFile(final String content) {
-        assertIsWorking();
+        return saveFile(content, LfeSaveLimiter.Priority.EXPLICIT);
+    }
 
-        CompletableFuture<LfeSaveFileEvent> saving = operationHandler.treatSaveFileJsRequest(
-                sendSaveFileJsRequest(content), content
-        );
+    CompletableFuture<Optional<String>> autosaveFile(final String content) {
+        return saveFile(content, LfeSaveLimiter.Priority.AUTOSAVE);
+    }
 
-        saving.thenAccept(observer::notifySaveFileEvent);
-        saving.thenAccept(this::updateState);
+    private CompletableFuture<Optional<String>> saveFile(final String content, final LfeSaveLimiter.Priority priority) {
+        assertIsWorking();
 
-        return saving.thenApply(event ->
+        return saveCoordinator.save(content, priority).thenApply(event ->
                 event.failed()
                         ? Optional.empty()
                         : Optional.ofNullable(event.data())
         );
     }
 
-    private CompletableFuture<JsonValue> sendSaveFileJsRequest(final String content) {
+    private CompletableFuture<LfeSaveFileEvent> writeFile(final String content, final LfeSaveLimiter.Priority priority) {
+        CompletableFuture<LfeSaveFileEvent> saving = writeAdmitted(priority, content == null ? 0L : content.length(),
+                content, () -> sendSaveFile(content));
+
+        saving.thenAccept(observer::notifySaveFileEvent);
+        saving.thenAccept(this::updateState);
+
+        return saving;
+    }
+
+    /**
+     * <p>Write once the save is admitted by the save limiter. Its permit is held until the write completes.</p>
+     * @param priority Priority of the save
+     * @param bytes Estimated size of the save
+     * @param content Data of the event of the save if it's shed
+     * @param sending Supplier that sends the write
+     * @return a future completed with the event of the save
+     */
+    private CompletableFuture<LfeSaveFileEvent> writeAdmitted(final LfeSaveLimiter.Priority priority, final long bytes,
+                                                             final String content, final Supplier<CompletableFuture<LfeSaveFileEvent>> sending) {
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> admission = setup.getSaveLimiter().acquire(priority, bytes);
+
+        return admission.isDone()
+                ? writeAdmittedFile(content, admission.join(), sending)
+                : admission.thenCompose(permit -> writeAdmittedFileInsideUi(content, permit, sending));
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> writeAdmittedFile(final String content, final Optional<LfeSaveLimiter.Permit> permit,
+                                                                 final Supplier<CompletableFuture<LfeSaveFileEvent>> sending) {
+        if(permit.isEmpty())
+            return CompletableFuture.completedFuture(new LfeSaveFileEvent(content,
+                    new LfeError(LfeError.Type.Saving.OVERLOADED, "The save has been shed because the server is saturated.")));
+
+        heldPermits.add(permit.get());
+        try {
+            CompletableFuture<LfeSaveFileEvent> saving = sending.get();
+            saving.whenComplete((event, error) -> releasePermit(permit.get()));
+
+            return saving;
+        } catch (RuntimeException e) {
+            releasePermit(permit.get());
+            throw e;
+        }
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> writeAdmittedFileInsideUi(final String content, final Optional<LfeSaveLimiter.Permit> permit,
+                                                                         final Supplier<CompletableFuture<LfeSaveFileEvent>> sending) {
+        CompletableFuture<LfeSaveFileEvent> saving = new CompletableFuture<>();
+
+        try {
+            UI ui = attachment.getUI()
+                    .orElseThrow(() -> new LfeException("Error. It's not possible to save the file due to the editor isn't attached to an UI."));
+
+            ui.access(() -> {
+                try {
+                    writeAdmittedFile(content, permit, sending).whenComplete((event, error) -> {
+                        if(error != null)
+                            saving.completeExceptionally(error);
+                        else
+                            saving.complete(event);
+                    });
+                } catch (RuntimeException e) {
+                    saving.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.ifPresent(LfeSaveLimiter.Permit::release);
+            saving.completeExceptionally(e);
+        }
+
+        return saving;
+    }
+
+    private void releasePermit(final LfeSaveLimiter.Permit permit) {
+        heldPermits.remove(permit);
+        permit.release();
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> sendSaveFile(final String content) {
+        Optional<LfeSavePatch> patch = setup.isSaveDeltas()
+                ? LfeSavePatch.worthSending(lastWrittenContent, content)
+                : Optional.empty();
+
+        if(patch.isEmpty())
+            return sendWholeSaveFile(content);
+
+        int version = lastWriteVersion + 1;
+        return operationHandler.treatSaveFileJsRequest(sendSaveFileDeltaJsRequest(patch.get(), version), content)
+                .thenCompose(event -> isVersionMismatch(event)
+                        ? sendWholeSaveFile(content)
+                        : CompletableFuture.completedFuture(rememberWrite(event, content, version)));
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> sendWholeSaveFile(final String content) {
+        int version = lastWriteVersion + 1;
+        LfeCompression compressing = compressionFor(content == null ? 0 : encodedLengthOf(content));
+        boolean isStreamed = content != null && content.length() >= setup.getSaveStreamingThreshold();
+
+        // Compressed contents can only be sent over HTTP, whatever their length. The server keeps the content anyway,
+        // so it's still the base of the next delta
+        if(isStreamed || compressing != null)
+            return operationHandler.treatSaveFileJsRequest(sendSaveFileFromUrlJsRequest(ui -> LfeSaveStream.register(ui, content, compressing),
+                            version, compressing, setup.isSaveDeltas()), content)
+                    .thenApply(event -> rememberWrite(event, content, version));
+
+        return operationHandler.treatSaveFileJsRequest(sendSaveFileJsRequest(content, version), content)
+                .thenApply(event -> rememberWrite(event, content, version));
+    }
+
+    private LfeCompression compressionFor(final long size) {
+        return size >= setup.getCompressionThreshold() ? compression : null;
+    }
+
+    // Size in bytes of the content once it's encoded as UTF-8 to be sent, without encoding it
+    static long encodedLengthOf(final String content) {
+        long bytes = 0;
+        for(int i = 0; i < content.length(); ++i) {
+            char c = content.charAt(i);
+            if(c < 0x80)
+                bytes += 1;
+            else if(c < 0x800 || Character.isSurrogate(c)) // A surrogate pair takes 4 bytes, 2 per char
+                bytes += 2;
+            else
+                bytes += 3;
+        }
+
+        return bytes;
+    }
+
+    private boolean isVersionMismatch(final LfeSaveFileEvent event) {
+        return event.error()
+                .map(error -> error.type() == LfeError.Type.Saving.VERSION_MISMATCH)
+                .orElse(false);
+    }
+
+    private LfeSaveFileEvent rememberWrite(final LfeSaveFileEvent event, final String content, final int version) {
+        if(!event.failed()) {
+            lastWriteVersion = version;
+            lastWrittenContent = setup.isSaveDeltas() ? content : null;
+        }
+
+        return event;
+    }
+
+    private void forgetLastWrite() {
+        lastWrittenContent = null;
+    }
+
+    private CompletableFuture<JsonValue> sendSaveFileJsRequest(final String content, final int version) {
         assertAttachmentIsReadyToSendJsRequest();
 
         return attachment.getElement()
-                .executeJs("return saveFile($0)", content)
+                .executeJs("return saveFile($0, $1, $2, $3)", uuid, content, version, setup.isSaveDeltas())
+                .toCompletableFuture();
+    }
+
+    private CompletableFuture<JsonValue> sendSaveFileFromUrlJsRequest(final Function<UI, LfeSaveStream> registering, final int version,
+                                                                      final LfeCompression compressing, final boolean keepsBase) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        UI ui = attachment.getUI()
+                .orElseThrow(() -> new LfeException("Error. It's not possible to save the file due to the editor isn't attached to an UI."));
+        LfeSaveStream stream = registering.apply(ui);
+
+        CompletableFuture<JsonValue> response = attachment.getElement()
+                .executeJs("return saveFileFromUrl($0, $1, $2, $3, $4)", uuid, stream.url(), version,
+                        compressing == null ? null : LfeCompression.FORMAT, keepsBase)
                 .toCompletableFuture();
+        response.whenComplete((json, error) -> ui.access(stream::unregister));
+
+        return response;
+    }
+
+    private CompletableFuture<JsonValue> sendSaveFileDeltaJsRequest(final LfeSavePatch patch, final int version) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return saveFileDelta($0, $1, $2, $3, $4, $5)", uuid,
+                        lastWriteVersion, version, patch.start(), patch.end(), patch.insert())
+                .toCompletableFuture();
+    }
+
+    /**
+     * <p>Save the binary content in the opened file, as it is. The content is fetched by the browser from the server
+     * and written in the file without being encoded as text, so it's never inflated nor copied into a JS request.</p>
+     * <p>As any other explicit save, it's admitted by the save limiter and, if a save is in progress, it's written
+     * once it completes. The data of the fired save event is null, since the content isn't text.</p>
+     * @param content Content to save
+     * @return a future completed with the saved content, or empty if the save failed
+     */
+    public CompletableFuture<Optional<byte[]>> saveFile(final byte[] content) {
+        assertIsWorking();
+
+        LfeCompression compressing = compressionFor(content == null ? 0 : content.length);
+        return saveCoordinator.write(() -> writeAdmitted(LfeSaveLimiter.Priority.EXPLICIT, content == null ? 0L : content.length,
+                        null, () -> saveFileFromUrl(ui -> LfeSaveStream.register(ui, content, compressing), compressing)))
+                .thenApply(event ->
+                        event.failed()
+                                ? Optional.empty()
+                                : Optional.ofNullable(content)
+                );
+    }
+
+    /**
+     * <p>Save the content read from the stream in the opened file, as it is. The content is read while the browser
+     * fetches it from the server, so it's never held as a whole in memory: it's useful to save files of any size,
+     * even larger than 2 GB.</p>
+     * <p>Since its size isn't known in advance, if a compression threshold is set, the head of the stream is read
+     * before sending it, up to the threshold but never more than 1 MB, to decide whether to compress it. It's read in
+     * the calling thread. As any other explicit save, it's admitted by the save limiter and, if a save is in progress,
+     * it's written once it completes. It's admitted with the size of the whole stream if it ends within its head, or
+     * with a reservation of at least 1 MB otherwise. The stream is closed once it's read. The data of the fired save
+     * event is null.</p>
+     * @param content Stream to read the content from
+     * @return a future completed with the number of bytes saved, or empty if the save failed
+     * @throws LfeException if the head of the stream can't be read
+     * @see LfeSetup#setCompressionThreshold(int)
+     */
+    public CompletableFuture<Optional<Long>> saveFile(final InputStream content) {
+        assertIsWorking();
+
+        // Without compression threshold there is nothing to decide, so the stream isn't peeked
+        if(setup.getCompressionThreshold() == Integer.MAX_VALUE)
+            return saveStream(content, MIN_STREAM_RESERVATION, null);
+
+        int lookahead = Math.min(setup.getCompressionThreshold(), MAX_STREAM_LOOKAHEAD);
+        BufferedInputStream buffered = new BufferedInputStream(content, Math.max(lookahead, 1));
+        int head = headLengthOf(buffered, lookahead);
+
+        // A stream that ends before the lookahead is smaller than the threshold. A longer one is assumed to reach it
+        boolean isLonger = head >= lookahead;
+        return saveStream(buffered, isLonger ? Math.max(head, MIN_STREAM_RESERVATION) : head, isLonger ? compression : null);
+    }
+
+    private CompletableFuture<Optional<Long>> saveStream(final InputStream content, final long bytes, final LfeCompression compressing) {
+        AtomicLong savedBytes = new AtomicLong(0L);
+        return saveCoordinator.write(() -> writeAdmitted(LfeSaveLimiter.Priority.EXPLICIT, bytes,
+                        null, () -> saveFileFromUrl(ui -> LfeSaveStream.register(ui, content, savedBytes, compressing), compressing)))
+                .thenApply(event ->
+                        event.failed()
+                                ? Optional.empty()
+                                : Optional.of(savedBytes.get())
+                );
+    }
+
+    private int headLengthOf(final BufferedInputStream content, final int lookahead) {
+        try {
+            content.mark(lookahead);
+            int head = content.readNBytes(lookahead).length;
+            content.reset();
+
+            return head;
+        } catch (IOException e) {
+            throw new LfeException("Error. It's not possible to read the content to save. " + e.getMessage());
+        }
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> saveFileFromUrl(final Function<UI, LfeSaveStream> registering, final LfeCompression compressing) {
+        int version = lastWriteVersion + 1;
+        CompletableFuture<LfeSaveFileEvent> saving = operationHandler
+                .treatSaveFileJsRequest(sendSaveFileFromUrlJsRequest(registering, version, compressing, false), null)
+                .thenApply(event -> rememberWrite(event, null, version));
+
+        saving.thenAccept(observer::notifySaveFileEvent);
+        saving.thenAccept(this::updateState);
+
+        return saving;
+    }
+
+    /**
+     * <p>Write the data in the opened file starting at the given position, keeping the rest of its content. The file
+     * grows if the data ends beyond its current size.</p>
+     * <p>Only the touched region is sent to the browser, so it's useful to update large files that are mostly
+     * unchanged. If a save is in progress, the range is written once it completes, and the saves requested later are
+     * written after the range. No save event is fired.</p>
+     * @param offset Position of the file, in bytes, where the data starts to be written
+     * @param data Data to write, encoded as UTF-8
+     * @return a future completed with the data written, or empty if the write failed
+     * @throws LfeException if the offset is negative
+     */
+    public CompletableFuture<Optional<String>> writeRange(final long offset, final String data) {
+        assertIsWorking();
+
+        if(offset < 0)
+            throw new LfeException("Error. Offset of the range to write must not be negative.");
+
+        return saveCoordinator.write(() -> {
+                    forgetLastWrite();
+                    return operationHandler.treatSaveFileJsRequest(sendWriteFileRangeJsRequest(offset, data), data);
+                })
+                .thenApply(event ->
+                        event.failed()
+                                ? Optional.empty()
+                                : Optional.ofNullable(data)
+                );
+    }
+
+    private CompletableFuture<JsonValue> sendWriteFileRangeJsRequest(final long offset, final String data) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        // Offsets are sent as doubles since executeJs doesn't accept longs. They are exact up to 2^53 bytes
+        return attachment.getElement()
+                .executeJs("return writeFileRange($0, $1, $2)", uuid, (double) offset, data)
+                .toCompletableFuture();
+    }
+
+    /**
+     * <p>Truncate or extend the opened file to the given size. If it's extended, the new bytes are zeros.</p>
+     * <p>If a save is in progress, the file is truncated once it completes, and the saves requested later are
+     * written after the truncation. No save event is fired.</p>
+     * @param size New size of the file, in bytes
+     * @return a future completed with the new size, or empty if the truncation failed
+     * @throws LfeException if the size is negative
+     */
+    public CompletableFuture<Optional<Long>> truncate(final long size) {
+        assertIsWorking();
+
+        if(size < 0)
+            throw new LfeException("Error. Size to truncate the file to must not be negative.");
+
+        return saveCoordinator.write(() -> {
+                    forgetLastWrite();
+                    return operationHandler.treatSaveFileJsRequest(sendTruncateFileJsRequest(size), null);
+                })
+                .thenApply(event ->
+                        event.failed()
+                                ? Optional.empty()
+                                : Optional.of(size)
+                );
+    }
+
+    private CompletableFuture<JsonValue> sendTruncateFileJsRequest(final long size) {
+        assertAttachmentIsReadyToSendJsRequest();
+
+        return attachment.getElement()
+                .executeJs("return truncateFile($0, $1)", uuid, (double) size)
+                .toCompletableFuture();
+    }
+
+    /**
+     * <p>Check that the editor can take part in a {@link LfeSaveBatch}, before any save of the batch is sent.</p>
+     * @throws LfeException if the editor isn't working or its attachment isn't ready to send JS requests
+     */
+    void assertIsReadyToSaveInBatch() {
+        assertIsWorking();
+        assertAttachmentIsReadyToSendJsRequest();
+    }
+
+    /**
+     * <p>Save the content as one of the saves of a {@link LfeSaveBatch}. Like any other save, it waits for the writes
+     * of this editor requested before it, and then it's admitted by the save limiter. If it's admitted immediately,
+     * its whole content is sent inline in the request of the batch, without deltas nor streaming. Otherwise, it's
+     * saved on its own once it's admitted.</p>
+     * @param content Content to save
+     * @param part Part of the batch that sends the save
+     * @return a future completed with the event of the save
+     */
+    CompletableFuture<LfeSaveFileEvent> saveInBatch(final String content, final LfeSaveBatch.Part part) {
+        return saveCoordinator.write(() -> part.onTurn().thenCompose(ignored -> writeInBatch(content, part)));
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> writeInBatch(final String content, final LfeSaveBatch.Part part) {
+        CompletableFuture<LfeSaveFileEvent> saving = writeAdmitted(LfeSaveLimiter.Priority.EXPLICIT,
+                content == null ? 0L : content.length(), content, () -> {
+                    JsonObject request = prepareBatchedSave(content);
+
+                    // Once the batch is sent without it, it's saved on its own
+                    return part.include(request)
+                            ? treatBatchedSaveResponse(request, part.response(), content)
+                            : sendSaveFile(content);
+                });
+        part.exclude();
+
+        saving.thenAccept(observer::notifySaveFileEvent);
+        saving.thenAccept(this::updateState);
+
+        return saving;
+    }
+
+    @VisibleForTesting
+    JsonObject prepareBatchedSave(final String content) {
+        assertIsReadyToSaveInBatch();
+
+        JsonObject request = Json.createObject();
+        request.put("editorId", uuid);
+        request.put("content", content == null ? Json.createNull() : Json.create(content));
+        request.put("version", lastWriteVersion + 1);
+        request.put("keepsBase", setup.isSaveDeltas());
+
+        return request;
+    }
+
+    private CompletableFuture<LfeSaveFileEvent> treatBatchedSaveResponse(final JsonObject request, final CompletableFuture<JsonValue> response,
+                                                                         final String content) {
+        int version = (int) request.getNumber("version");
+
+        return operationHandler.treatSaveFileJsRequest(response, content)
+                .thenApply(event -> rememberWrite(event, content, version));
+    }
+
+    Component attachment() {
+        return attachment;
+    }
+
+    /**
+     * @return a snapshot of the statistics of the contents compressed in transit by this editor
+     * @see LfeSetup#setCompressionThreshold(int)
+     */
+    public LfeCompressionStatistics compressionStatistics() {
+        return compression.statistics();
     }
 
     void updateState() {
@@ -247,13 +1070,15 @@ public class LiveFileEditor {
         state = state.withEditorIsWorking(isWorking())
                 .withAutosaveIsWorking(autosave().isWorking());
 
-        if(event instanceof LfeOpenFileEvent opening && opening.fileInfo().isPresent())
+        if(event instanceof LfeOpenFileEvent opening && opening.fileInfo().isPresent()) {
             state = state.withOpenedFile(opening.fileInfo().get());
-        else if(event instanceof LfeCloseFileEvent)
+            openedFiles.incrementAndGet();
+        } else if(event instanceof LfeCloseFileEvent) {
             state = state.withOpenedFile(null);
-        else if(event instanceof LfeSaveFileEvent saving) {
+            openedFiles.incrementAndGet();
+        } else if(event instanceof LfeSaveFileEvent saving) {
             state = state.withLastSaveTime(LocalDateTime.now())
-                    .withLastSaveData(saving.data());
+                    .withLastSaveOf(saving.data(), setup.isRetainLastSaveData());
         }
 
         if(!oldState.equals(state))
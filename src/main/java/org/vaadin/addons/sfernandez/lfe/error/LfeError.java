@@ -83,6 +83,12 @@ public record LfeError(Type type, String message) {
             NOT_FOUND("NotFoundError"),
             /** The user didn't grant the necessary permissions */
             PERMISSION_NOT_GRANTED("PermissionNotGrantedError"),
+            /** There is no opened file whose content could be read */
+            MISSING_FILE("MissingFileError"),
+            /** There is no opened workspace where the file or the directory could be found */
+            MISSING_WORKSPACE("MissingWorkspaceError"),
+            /** The entry of the workspace is a file where a directory was expected, or vice versa */
+            TYPE_MISMATCH("TypeMismatchError"),
             /** The call was blocked for security reasons */
             SECURITY("SecurityError"),
             /** The accepted types can't be processed:
@@ -135,7 +141,13 @@ public record LfeError(Type type, String message) {
             /** The permission to readwrite is not granted */
             NOT_ALLOWED("NotAllowedError"),
             /** The current file is not found */
-            NOT_FOUND("NotFoundError");
+            NOT_FOUND("NotFoundError"),
+            /** The save has been shed because the {@link org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter} is saturated */
+            OVERLOADED("OverloadedError"),
+            /** The content written in the file isn't the base of the delta sent to save. The whole content must be sent */
+            VERSION_MISMATCH("VersionMismatchError"),
+            /** The browser is not able to fetch the content to save from the server */
+            NETWORK("NetworkError");
 
             private final String code;
 
@@ -0,0 +1,11 @@
+package org.vaadin.addons.sfernandez.lfe.parameters;
+
+/**
+ *
+ * @param info File info, without its content
+ * @param content File content, as it is stored
+ */
+public record FileBytes(
+        FileInfo info,
+        byte[] content
+) {}
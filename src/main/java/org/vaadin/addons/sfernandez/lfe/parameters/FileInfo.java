@@ -5,9 +5,9 @@ import es.sfernandez.library4j.types.DataSize;
 /**
  *
  * @param name File name
- * @param size File size in Bytes
+ * @param size File size in Bytes, saturated at {@link Integer#MAX_VALUE} for larger files
  * @param type File MIME type, empty if unknown
- * @param content File content
+ * @param content File content, null if it was not sent with the info
  */
 public record FileInfo(
         String name,
@@ -0,0 +1,17 @@
+package org.vaadin.addons.sfernandez.lfe.parameters;
+
+import java.io.InputStream;
+
+/**
+ *
+ * @param info File info, without its content
+ * @param length Exact file size in Bytes, even beyond the {@link FileInfo#size()} limit of 2 GB
+ * @param content File content, uploaded by the browser while it's read. It must be closed once it's no longer read,
+ *                even if it isn't read until the end, since the upload waits for it. An upload left waiting for too long
+ *                fails
+ */
+public record FileStream(
+        FileInfo info,
+        long length,
+        InputStream content
+) {}
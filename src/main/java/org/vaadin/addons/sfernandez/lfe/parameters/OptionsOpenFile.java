@@ -5,6 +5,7 @@ public final class OptionsOpenFile
 
     //---- Attributes ----
     private boolean multipleSelection = false;
+    private boolean metadataOnly = false;
 
     //---- Methods ----
     public boolean isMultipleSelection() {
@@ -14,4 +15,17 @@ public final class OptionsOpenFile
     public void setMultipleSelection(boolean multipleSelection) {
         this.multipleSelection = multipleSelection;
     }
+
+    public boolean isMetadataOnly() {
+        return metadataOnly;
+    }
+
+    /**
+     * <p>If true, only the name, size and type of the opened file are transferred, so its content is null. The content
+     * can be read later on demand.</p>
+     * @param metadataOnly true to open the file without transferring its content
+     */
+    public void setMetadataOnly(boolean metadataOnly) {
+        this.metadataOnly = metadataOnly;
+    }
 }
@@ -0,0 +1,36 @@
+package org.vaadin.addons.sfernandez.lfe.parameters;
+
+/**
+ *
+ * @param path Path of the entry relative to the root of the workspace, with its names separated by '/'
+ * @param name Entry name
+ * @param kind Whether the entry is a file or a directory
+ */
+public record WorkspaceEntry(
+        String path,
+        String name,
+        Kind kind
+) {
+
+    //---- Constants and Definitions ----
+    public enum Kind {
+        FILE("file"),
+        DIRECTORY("directory");
+
+        private final String representation;
+
+        Kind(String representation) {
+            this.representation = representation;
+        }
+
+        public String getRepresentation() {
+            return representation;
+        }
+    }
+
+    //---- Methods ----
+    public boolean isDirectory() {
+        return kind == Kind.DIRECTORY;
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.vaadin.addons.sfernandez.lfe.parameters;
+
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * @param updated Entries of the files that are new or have changed
+ * @param removed Paths of the files that no longer exist
+ * @param failed Errors of the files and directories that couldn't be read, by their path. Their entries are kept as
+ *               they were, and they are read again by the next refresh
+ */
+public record WorkspaceIndexChanges(
+        List<WorkspaceIndexEntry> updated,
+        List<String> removed,
+        Map<String, LfeError> failed
+) {
+
+    //---- Methods ----
+    /**
+     * @return true if no entry has been updated nor removed. The failures aren't changes
+     */
+    public boolean isEmpty() {
+        return updated.isEmpty() && removed.isEmpty();
+    }
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.vaadin.addons.sfernandez.lfe.parameters;
+
+import java.time.Instant;
+
+/**
+ *
+ * @param path Path of the file relative to the root of the workspace, with its names separated by '/'
+ * @param size File size in Bytes
+ * @param lastModified Last time the file was modified
+ * @param fingerprint Fingerprint of the content of the file, as a hexadecimal string. See {@link org.vaadin.addons.sfernandez.lfe.LfeWorkspaceIndex}
+ */
+public record WorkspaceIndexEntry(
+        String path,
+        long size,
+        Instant lastModified,
+        String fingerprint
+) {}
@@ -0,0 +1,72 @@
+package org.vaadin.addons.sfernandez.lfe.setup;
+
+import org.vaadin.addons.sfernandez.lfe.LfeAutosave;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+
+import java.time.Duration;
+
+/**
+ * <p>Policy that decides how long the {@link LfeAutosave} process waits between two ticks.</p>
+ */
+@FunctionalInterface
+public interface LfeAutosaveFrequencyPolicy {
+
+    /**
+     * @param frequency Frequency configured in the {@link LfeAutosaveSetup}
+     * @param currentInterval Interval waited before the last tick
+     * @param changesFound true if the last tick found changes to save
+     * @return the interval to wait before the next tick. Must be positive
+     */
+    Duration nextInterval(Duration frequency, Duration currentInterval, boolean changesFound);
+
+    /**
+     * @return true if this policy always returns the configured frequency, so the ticks can be scheduled at fixed rate
+     */
+    default boolean isFixed() {
+        return false;
+    }
+
+    /**
+     * @return a policy that always waits the configured frequency
+     */
+    static LfeAutosaveFrequencyPolicy fixed() {
+        return new LfeAutosaveFrequencyPolicy() {
+            @Override
+            public Duration nextInterval(Duration frequency, Duration currentInterval, boolean changesFound) {
+                return frequency;
+            }
+
+            @Override
+            public boolean isFixed() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * <p>Policy that waits the configured frequency while the content is changing and, while it's idle, multiplies the
+     * interval by the factor after every tick until reaching the ceiling.</p>
+     * @param factor How much the interval grows after an idle tick. Must be greater than 1
+     * @param ceiling Max interval to wait between two ticks
+     * @return an exponential backoff policy
+     * @throws LfeException if factor isn't greater than 1 or ceiling isn't positive
+     */
+    static LfeAutosaveFrequencyPolicy exponentialBackoff(final double factor, final Duration ceiling) {
+        if(factor <= 1)
+            throw new LfeException("Error. Backoff factor must be greater than 1.");
+
+        if(ceiling == null || ceiling.isNegative() || ceiling.isZero())
+            throw new LfeException("Error. Backoff ceiling must be positive.");
+
+        return (frequency, currentInterval, changesFound) -> {
+            if(changesFound)
+                return frequency;
+
+            long nextIntervalInMillis = (long) Math.ceil(currentInterval.toMillis() * factor);
+            long maxIntervalInMillis = Math.max(frequency.toMillis(), ceiling.toMillis());
+
+            return Duration.ofMillis(Math.min(nextIntervalInMillis, maxIntervalInMillis));
+        };
+    }
+
+}
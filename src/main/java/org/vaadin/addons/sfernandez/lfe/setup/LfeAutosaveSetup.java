@@ -1,9 +1,13 @@
 package org.vaadin.addons.sfernandez.lfe.setup;
 
 import org.vaadin.addons.sfernandez.lfe.LfeAutosave;
+import org.vaadin.addons.sfernandez.lfe.LfeAutosaveScheduler;
+import org.vaadin.addons.sfernandez.lfe.LfeFingerprint;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -13,14 +17,37 @@ public class LfeAutosaveSetup {
 
     //---- Attributes ----
     private final Duration frequency;
+    private final LfeAutosaveFrequencyPolicy frequencyPolicy;
+    private final boolean isSpreadingTicksOverFrequency;
+    private final Duration initialDelayJitter;
+    private final Duration debounceQuietPeriod;
+    private final Duration debounceMaxWait;
     private final Supplier<String> dataToSave;
+    private final LongSupplier contentVersion;
+    private final boolean isUsingFingerprintsToDetectChanges;
     private final boolean isAllowedToAlterUiPollInterval;
+    private final boolean isRelyingOnPushWhenEnabled;
+    private final LfeAutosaveScheduler scheduler;
 
     //---- Constructor ----
-    private LfeAutosaveSetup(Duration frequency, Supplier<String> dataToSave, boolean isAllowedToAlterUiPollInterval) {
+    private LfeAutosaveSetup(Duration frequency, LfeAutosaveFrequencyPolicy frequencyPolicy,
+                             boolean isSpreadingTicksOverFrequency, Duration initialDelayJitter,
+                             Duration debounceQuietPeriod, Duration debounceMaxWait,
+                             Supplier<String> dataToSave, LongSupplier contentVersion,
+                             boolean isUsingFingerprintsToDetectChanges, boolean isAllowedToAlterUiPollInterval,
+                             boolean isRelyingOnPushWhenEnabled, LfeAutosaveScheduler scheduler) {
         this.frequency = frequency;
+        this.frequencyPolicy = frequencyPolicy;
+        this.isSpreadingTicksOverFrequency = isSpreadingTicksOverFrequency;
+        this.initialDelayJitter = initialDelayJitter;
+        this.debounceQuietPeriod = debounceQuietPeriod;
+        this.debounceMaxWait = debounceMaxWait;
         this.dataToSave = dataToSave;
+        this.contentVersion = contentVersion;
+        this.isUsingFingerprintsToDetectChanges = isUsingFingerprintsToDetectChanges;
         this.isAllowedToAlterUiPollInterval = isAllowedToAlterUiPollInterval;
+        this.isRelyingOnPushWhenEnabled = isRelyingOnPushWhenEnabled;
+        this.scheduler = scheduler;
     }
 
     //---- Methods ----
@@ -31,6 +58,57 @@ public class LfeAutosaveSetup {
         return frequency;
     }
 
+    /**
+     * @return the policy that decides the interval between two autosave ticks, starting from the {@link #frequency()}
+     */
+    public LfeAutosaveFrequencyPolicy frequencyPolicy() {
+        return frequencyPolicy;
+    }
+
+    /**
+     * <p>If true, the first tick of the autosave process is delayed a random time between zero and the
+     * {@link #frequency()}, so the ticks of the processes started at the same time (e.g. after a deploy or a reconnection
+     * storm) are spread evenly over the period instead of being executed in the same instant.</p>
+     * @return true if the phase of the autosave ticks is spread over the frequency
+     */
+    public boolean isSpreadingTicksOverFrequency() {
+        return isSpreadingTicksOverFrequency;
+    }
+
+    /**
+     * <p>Max random time added to the delay of the first tick of the autosave process.</p>
+     * @return the max jitter of the initial delay, zero if there is no jitter
+     */
+    public Duration initialDelayJitter() {
+        return initialDelayJitter;
+    }
+
+    /**
+     * <p>If true, the changes found by the autosave ticks are not saved until no new change is found during the
+     * {@link #debounceQuietPeriod()}, or until the {@link #debounceMaxWait()} has passed since the first unsaved change
+     * was found. In that case, the {@link #frequency()} represents how often the ticks look for changes, and a tick is
+     * also scheduled when the quiet period of the last change found, or marked, ends.</p>
+     * @return true if the autosave is debounced
+     */
+    public boolean isDebounced() {
+        return debounceQuietPeriod != null;
+    }
+
+    /**
+     * @return the time without changes to wait before saving them, null if the autosave isn't debounced
+     */
+    public Duration debounceQuietPeriod() {
+        return debounceQuietPeriod;
+    }
+
+    /**
+     * @return the max time to wait before saving the changes, even if they don't stop. Null if the autosave isn't
+     * debounced
+     */
+    public Duration debounceMaxWait() {
+        return debounceMaxWait;
+    }
+
     /**
      * @return an object that supplies the data to save automatically
      */
@@ -38,6 +116,24 @@ public class LfeAutosaveSetup {
         return dataToSave;
     }
 
+    /**
+     * <p>If present, the autosave process compares the supplied version with the one of the last saved content to
+     * know if the content has changed, instead of getting and comparing the whole content in every tick.</p>
+     * @return an optional with the object that supplies the current content version
+     */
+    public Optional<LongSupplier> contentVersion() {
+        return Optional.ofNullable(contentVersion);
+    }
+
+    /**
+     * <p>If true, the autosave process only keeps a {@link LfeFingerprint} of the last saved content to know if it has
+     * changed, instead of a whole copy of it. It's recommended for big contents.</p>
+     * @return true if fingerprints are used to detect changes in the content to save
+     */
+    public boolean isUsingFingerprintsToDetectChanges() {
+        return isUsingFingerprintsToDetectChanges;
+    }
+
     /**
      * <p>If true, when the autosave process starts, the UI's poll interval will be
      * modified by the {@link LfeAutosave} component to ensure that the save operations
@@ -50,6 +146,25 @@ public class LfeAutosaveSetup {
         return isAllowedToAlterUiPollInterval;
     }
 
+    /**
+     * <p>If true and the UI has server push enabled (e.g. with {@code @Push}), the autosave process relies on it to
+     * deliver its saves: the UI's poll interval is never altered and no warning about it is shown. Idle clients don't
+     * poll the server at all, instead of sending one request every {@link #frequency()} (12 requests per minute with
+     * the default frequency).</p>
+     * <p>If the push mode is manual, the autosave process pushes the changes after requesting every save.</p>
+     * @return true if the autosave process relies on server push when it's enabled
+     */
+    public boolean isRelyingOnPushWhenEnabled() {
+        return isRelyingOnPushWhenEnabled;
+    }
+
+    /**
+     * @return the scheduler where the autosave process registers its ticks
+     */
+    public LfeAutosaveScheduler scheduler() {
+        return scheduler;
+    }
+
     /* *************************************
      *              BUILDER
      * *************************************/
@@ -57,8 +172,17 @@ public class LfeAutosaveSetup {
 
         //---- Attributes ----
         private Duration frequency = Duration.ofSeconds(5);
+        private LfeAutosaveFrequencyPolicy frequencyPolicy = LfeAutosaveFrequencyPolicy.fixed();
+        private boolean isSpreadingTicksOverFrequency = false;
+        private Duration initialDelayJitter = Duration.ZERO;
+        private Duration debounceQuietPeriod = null;
+        private Duration debounceMaxWait = null;
         private Supplier<String> dataToSaveSupplier = null;
+        private LongSupplier contentVersionSupplier = null;
+        private boolean isUsingFingerprintsToDetectChanges = false;
         private boolean isAllowedToAlterUiPollInterval = false;
+        private boolean isRelyingOnPushWhenEnabled = false;
+        private LfeAutosaveScheduler scheduler = LfeAutosaveScheduler.shared();
 
         //---- Methods ----
         /**
@@ -71,6 +195,57 @@ public class LfeAutosaveSetup {
             return this;
         }
 
+        /**
+         * <p>Use {@link LfeAutosaveFrequencyPolicy#exponentialBackoff(double, Duration)} to save often while the content
+         * is changing and wait more and more while it's idle.</p>
+         * <p>Default: {@link LfeAutosaveFrequencyPolicy#fixed()}</p>
+         * @param policy policy that decides the interval between two autosave ticks, starting from the frequency
+         * @return the Builder
+         */
+        public Builder frequencyPolicy(LfeAutosaveFrequencyPolicy policy) {
+            this.frequencyPolicy = policy;
+            return this;
+        }
+
+        /**
+         * <p>If true, the first tick is delayed a random time between zero and the frequency, so the ticks of the
+         * processes started at the same time are spread evenly over the period.</p>
+         * <p>Default: false, the first tick is executed immediately</p>
+         * @param spread true to spread the phase of the autosave ticks over the frequency
+         * @return the Builder
+         */
+        public Builder spreadTicksOverFrequency(boolean spread) {
+            this.isSpreadingTicksOverFrequency = spread;
+            return this;
+        }
+
+        /**
+         * <p>Default: zero, no jitter</p>
+         * @param maxJitter max random time added to the delay of the first tick
+         * @return the Builder
+         */
+        public Builder initialDelayJitter(Duration maxJitter) {
+            this.initialDelayJitter = maxJitter;
+            return this;
+        }
+
+        /**
+         * <p>Debounce the autosave: the changes found by the ticks are saved once no new change is found during the
+         * quiet period, or once the max wait has passed since the first unsaved change was found, so continuous
+         * typing is still saved. The frequency represents how often the ticks look for changes. Once a change is found,
+         * or marked with {@link org.vaadin.addons.sfernandez.lfe.LfeAutosave#markDirty()}, a tick is scheduled when its
+         * quiet period ends, so the quiet period can be shorter than the frequency.</p>
+         * <p>Default: not debounced, changes are saved in the first tick that finds them</p>
+         * @param quietPeriod time without changes to wait before saving them
+         * @param maxWait max time to wait before saving the changes, even if they don't stop
+         * @return the Builder
+         */
+        public Builder debounce(Duration quietPeriod, Duration maxWait) {
+            this.debounceQuietPeriod = quietPeriod;
+            this.debounceMaxWait = maxWait;
+            return this;
+        }
+
         /**
          * @param supplier object that supplies the data to save automatically
          * @return the Builder
@@ -80,6 +255,31 @@ public class LfeAutosaveSetup {
             return this;
         }
 
+        /**
+         * <p>The supplied version must change every time the content to save changes, e.g. a counter increased
+         * by a value change listener of the component being edited. That way idle editors are skipped without getting
+         * their content.</p>
+         * <p>Default: null, the content is compared in every tick</p>
+         * @param supplier object that supplies the current content version
+         * @return the Builder
+         */
+        public Builder contentVersionSupplier(LongSupplier supplier) {
+            this.contentVersionSupplier = supplier;
+            return this;
+        }
+
+        /**
+         * <p>If true, the autosave process only keeps a {@link LfeFingerprint} of the last saved content to know if it
+         * has changed, instead of a whole copy of it. It's recommended for big contents.</p>
+         * <p>Default: false</p>
+         * @param use true to use fingerprints to detect changes in the content to save
+         * @return the Builder
+         */
+        public Builder useFingerprintsToDetectChanges(boolean use) {
+            this.isUsingFingerprintsToDetectChanges = use;
+            return this;
+        }
+
         /**
          * <p>If true, when the autosave process starts, the UI's poll interval will be
          * modified by the {@link LfeAutosave} component to ensure that the save operations
@@ -95,14 +295,43 @@ public class LfeAutosaveSetup {
             return this;
         }
 
+        /**
+         * <p>If true and the UI has server push enabled (e.g. with {@code @Push}), the autosave process relies on it to
+         * deliver its saves, so the UI's poll interval is never altered.</p>
+         * <p>It's opt-in, so the apps with push enabled keep their poll interval raised as before unless they enable
+         * it.</p>
+         * <p>Default: false</p>
+         * @param rely true to rely on server push when it's enabled
+         * @return the Builder
+         */
+        public Builder relyOnPushWhenEnabled(boolean rely) {
+            this.isRelyingOnPushWhenEnabled = rely;
+            return this;
+        }
+
+        /**
+         * <p>Default: {@link LfeAutosaveScheduler#shared()}, the scheduler shared by all the autosave processes of the JVM</p>
+         * @param scheduler scheduler where the autosave process will register its ticks
+         * @return the Builder
+         */
+        public Builder scheduler(LfeAutosaveScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
         /**
          * @return a new {@link LfeAutosaveSetup}
-         * @throws LfeException if frequency or dataToSaveSupplier are null
+         * @throws LfeException if frequency, frequencyPolicy, dataToSaveSupplier or scheduler are null, or if any of the
+         * durations is out of its range
          */
         public LfeAutosaveSetup build() {
             validateBuilding();
 
-            return new LfeAutosaveSetup(frequency, dataToSaveSupplier, isAllowedToAlterUiPollInterval);
+            return new LfeAutosaveSetup(frequency, frequencyPolicy,
+                    isSpreadingTicksOverFrequency, initialDelayJitter, debounceQuietPeriod, debounceMaxWait,
+                    dataToSaveSupplier, contentVersionSupplier,
+                    isUsingFingerprintsToDetectChanges, isAllowedToAlterUiPollInterval,
+                    isRelyingOnPushWhenEnabled, scheduler);
         }
 
         private void validateBuilding() {
@@ -112,8 +341,23 @@ public class LfeAutosaveSetup {
             if(frequency.isNegative() || frequency.isZero())
                 throw new LfeException("Error. Frequency must be positive.");
 
+            if(frequencyPolicy == null)
+                throw new LfeException("Error. Autosave frequency policy must not be null.");
+
+            if(initialDelayJitter == null || initialDelayJitter.isNegative())
+                throw new LfeException("Error. Initial delay jitter must not be null nor negative.");
+
+            if(debounceQuietPeriod != null && (debounceQuietPeriod.isNegative() || debounceQuietPeriod.isZero()))
+                throw new LfeException("Error. Debounce quiet period must be positive.");
+
+            if(debounceQuietPeriod != null && (debounceMaxWait == null || debounceMaxWait.compareTo(debounceQuietPeriod) < 0))
+                throw new LfeException("Error. Debounce max wait must not be shorter than the quiet period.");
+
             if(dataToSaveSupplier == null)
                 throw new LfeException("Error. A data to save supplier is mandatory.");
+
+            if(scheduler == null)
+                throw new LfeException("Error. Autosave scheduler must not be null.");
         }
     }
 
@@ -1,5 +1,7 @@
 package org.vaadin.addons.sfernandez.lfe.setup;
 
+import org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 import org.vaadin.addons.sfernandez.lfe.parameters.FileType;
 
 public class LfeSetup {
@@ -7,6 +9,11 @@ public class LfeSetup {
     //---- Attributes ----
     private boolean rememberLastDirectory = true;
     private FileType[] allowedFileTypes = new FileType[0];
+    private boolean retainLastSaveData = true;
+    private LfeSaveLimiter saveLimiter = LfeSaveLimiter.shared();
+    private boolean saveDeltas = false;
+    private int saveStreamingThreshold = Integer.MAX_VALUE;
+    private int compressionThreshold = Integer.MAX_VALUE;
 
     //---- Methods ----
     public boolean isRememberLastDirectory() {
@@ -35,4 +42,90 @@ public class LfeSetup {
         this.allowedFileTypes = new FileType[0];
     }
 
+    public boolean isRetainLastSaveData() {
+        return retainLastSaveData;
+    }
+
+    /**
+     * <p>If false, the editor's state only keeps the fingerprint of the last saved data instead of a whole copy of it.</p>
+     * <p>Default: true</p>
+     * @param retainLastSaveData true to keep a copy of the last saved data in the editor's state
+     */
+    public void setRetainLastSaveData(boolean retainLastSaveData) {
+        this.retainLastSaveData = retainLastSaveData;
+    }
+
+    public LfeSaveLimiter getSaveLimiter() {
+        return saveLimiter;
+    }
+
+    /**
+     * <p>Default: {@link LfeSaveLimiter#shared()}, the limiter shared by all the editors of the JVM</p>
+     * @param saveLimiter limiter that admits the saves of the editor. If null, the shared one is used
+     */
+    public void setSaveLimiter(LfeSaveLimiter saveLimiter) {
+        this.saveLimiter = saveLimiter == null
+                ? LfeSaveLimiter.shared()
+                : saveLimiter;
+    }
+
+    public boolean isSaveDeltas() {
+        return saveDeltas;
+    }
+
+    /**
+     * <p>If true, the editor keeps a copy of the last written content and, when it's possible, saves only the patch
+     * that transforms it into the new content instead of sending the whole content to the browser. If the browser
+     * doesn't have the content the patch is based on, the whole content is sent.</p>
+     * <p>Default: false</p>
+     * @param saveDeltas true to save only the changes of the content
+     */
+    public void setSaveDeltas(boolean saveDeltas) {
+        this.saveDeltas = saveDeltas;
+    }
+
+    public int getSaveStreamingThreshold() {
+        return saveStreamingThreshold;
+    }
+
+    /**
+     * <p>Contents whose length reaches the threshold are saved over HTTP: the browser fetches them from a short-lived
+     * resource and pipes them straight into the file, instead of receiving them as a parameter of a JS request.</p>
+     * <p>Default: {@link Integer#MAX_VALUE}, contents are never streamed</p>
+     * @param saveStreamingThreshold min length of the contents to stream. Zero streams every content
+     * @throws LfeException if the threshold is negative
+     */
+    public void setSaveStreamingThreshold(int saveStreamingThreshold) {
+        if(saveStreamingThreshold < 0)
+            throw new LfeException("Error. Save streaming threshold must not be negative.");
+
+        this.saveStreamingThreshold = saveStreamingThreshold;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * <p>Contents whose size reaches the threshold are gzip compressed while they are transferred: saved contents are
+     * compressed by the server and decompressed by the browser, and contents opened as a stream the other way round.
+     * Since it's only possible over HTTP, saved contents that reach the threshold are streamed too, whatever the
+     * {@link #setSaveStreamingThreshold(int) streaming threshold}. They are still the base of the next delta save.</p>
+     * <p>The size is measured in bytes: a saved text is measured by its length once encoded as UTF-8, not by its
+     * number of chars.</p>
+     * <p>The size of a content saved from an {@link java.io.InputStream} isn't known in advance, so its head is read
+     * before sending it, up to the threshold but never more than 1 MB. If the stream ends before, it's known to be
+     * smaller and it isn't compressed. Otherwise it's compressed, so with thresholds over 1 MB every stream longer than
+     * 1 MB is compressed.</p>
+     * <p>Default: {@link Integer#MAX_VALUE}, contents are never compressed</p>
+     * @param compressionThreshold min size of the contents to compress. Zero compresses every content
+     * @throws LfeException if the threshold is negative
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        if(compressionThreshold < 0)
+            throw new LfeException("Error. Compression threshold must not be negative.");
+
+        this.compressionThreshold = compressionThreshold;
+    }
+
 }
@@ -1,12 +1,36 @@
-window.fileHandle = null; // Stores the handler for the opened file
+window.lfeEditors = {}; // State of each LiveFileEditor of the page, by its id, so they don't clobber each other
+
+function editorOf(editorId) {
+    if(!lfeEditors[editorId]) {
+        lfeEditors[editorId] = {
+            fileHandle: null, // Stores the handler for the opened file
+            fileInfo: null, // Metadata of the opened file, kept up to date so it doesn't have to be read again on close
+            lastWrittenContent: null, // Content of the last write, base of the delta saves
+            lastWrittenVersion: null, // Version of the last write, given by the server
+            workspaces: {} // Opened directories and the handles of their entries already resolved, by the id of their workspace
+        };
+    }
+    return lfeEditors[editorId];
+}
+
+window.forgetEditor = function(editorId) {
+    delete lfeEditors[editorId]; // Frees the handles of its file and its workspaces
+}
+
+function workspaceOf(editorId, workspaceId) {
+    return editorOf(editorId).workspaces[workspaceId];
+}
+
+window.createFile = async function(editorId, fileTypes) {
+    const editor = editorOf(editorId);
 
-window.createFile = async function(fileTypes) {
     try {
         const handle = await window.showSaveFilePicker(fileTypes);
 
-        fileHandle = handle;
+        editor.fileHandle = handle;
+        forgetLastWrite(editor);
 
-        return getFileInfoAsJson(fileHandle);
+        return getFileInfoAsJson(editor);
     } catch (err) {
         return {
             error: err.name,
@@ -15,20 +39,329 @@ window.createFile = async function(fileTypes) {
     }
 }
 
-window.openFile = async function(fileTypes) {
+window.openFile = async function(editorId, fileTypes) {
+    const editor = editorOf(editorId);
+
     try {
-        const [handle] = await window.showOpenFilePicker(fileTypes);
+        const error = await pickFileToOpen(editor, fileTypes);
+        if(error) {
+            return error;
+        }
 
-        fileHandle = handle;
+        return getFileInfoAsJson(editor, !fileTypes.metadataOnly);
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
 
-        if(await verifyPermission(fileHandle, true)) {
-            return getFileInfoAsJson(fileHandle);
-        } else {
+window.openFiles = async function(editorId, fileTypes, element, requestId) {
+    try {
+        const handles = await window.showOpenFilePicker({ ...fileTypes, multiple: true });
+
+        // Read concurrently, each file is notified as a page as soon as it's read instead of waiting for all of them
+        await Promise.all(handles.map((handle, index) => readPickedFile(handle, index, !fileTypes.metadataOnly)
+            .then(detail => element.dispatchEvent(new CustomEvent('lfe-file-read', {
+                detail: { requestId: requestId, ...detail }
+            })))));
+
+        return { count: handles.length };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+async function readPickedFile(handle, index, withContent) {
+    try {
+        const file = await handle.getFile();
+
+        const json = { index: index, name: file.name, size: file.size, type: file.type };
+        if(withContent) {
+            json.content = await file.text();
+        }
+        return json;
+    } catch (err) {
+        return { index: index, error: err.name, message: err.message };
+    }
+}
+
+window.openWorkspace = async function(editorId, workspaceId, id) {
+    const editor = editorOf(editorId);
+
+    try {
+        const options = { mode: 'readwrite' };
+        if(id) {
+            options.id = id;
+        }
+        const root = await window.showDirectoryPicker(options);
+
+        editor.workspaces[workspaceId] = {
+            root: root,
+            handles: { '': root },
+            index: {}, // Entries of the last refresh of the index received by the server, by their path
+            pendingIndex: null // Entries of the last refresh, until the server confirms it has received them
+        };
+        return { name: root.name };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+window.listWorkspaceDirectory = async function(editorId, workspaceId, path, element, requestId, pageSize) {
+    const workspace = workspaceOf(editorId, workspaceId);
+
+    if(!workspace) {
+        return {
+           "error": 'MissingWorkspaceError',
+           "message": "There is no opened workspace"
+        }
+    }
+
+    try {
+        const directory = await workspaceHandleOf(workspace, path, 'directory');
+
+        let pages = 0;
+        let page = [];
+        const notifyPage = () => {
+            element.dispatchEvent(new CustomEvent('lfe-directory-page', {
+                detail: { requestId: requestId, index: pages++, entries: page }
+            }));
+            page = [];
+        };
+
+        // The directory is iterated lazily, each page is notified as soon as it's filled
+        for await (const [name, handle] of directory.entries()) {
+            workspace.handles[path ? path + '/' + name : name] = handle;
+            page.push({ name: name, kind: handle.kind });
+            if(page.length >= pageSize) {
+                notifyPage();
+            }
+        }
+        if(page.length > 0) {
+            notifyPage();
+        }
+
+        return { count: pages };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+async function workspaceHandleOf(workspace, path, kind) {
+    if(workspace.handles[path]) {
+        if(workspace.handles[path].kind !== kind) {
+            throw new DOMException("The entry " + path + " isn't a " + kind, 'TypeMismatchError');
+        }
+        return workspace.handles[path];
+    }
+
+    // Not listed yet, so it's resolved from the root
+    const names = path.split('/');
+    let handle = workspace.root;
+    for(let i = 0; i < names.length; ++i) {
+        handle = (i === names.length - 1 && kind === 'file')
+            ? await handle.getFileHandle(names[i])
+            : await handle.getDirectoryHandle(names[i]);
+    }
+
+    workspace.handles[path] = handle;
+    return handle;
+}
+
+window.refreshWorkspaceIndex = async function(editorId, workspaceId, element, requestId, pageSize) {
+    const workspace = workspaceOf(editorId, workspaceId);
+
+    if(!workspace) {
+        return {
+           "error": 'MissingWorkspaceError',
+           "message": "There is no opened workspace"
+        }
+    }
+
+    try {
+        let pages = 0;
+        let rows = [];
+        const notifyPage = () => {
+            element.dispatchEvent(new CustomEvent('lfe-index-page', {
+                detail: { requestId: requestId, index: pages++, rows: rows }
+            }));
+            rows = [];
+        };
+        const addRow = row => {
+            rows.push(row);
+            if(rows.length >= pageSize) {
+                notifyPage();
+            }
+        };
+
+        const current = {};
+        await indexDirectory(workspace, workspace.root, '', current, addRow, concurrencyLimiter(4));
+        for(const path in workspace.index) {
+            if(!(path in current)) {
+                addRow({ path: path, removed: true });
+            }
+        }
+        if(rows.length > 0) {
+            notifyPage();
+        }
+
+        workspace.pendingIndex = { requestId: requestId, entries: current };
+        return { count: pages };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+async function indexDirectory(workspace, directory, path, current, addRow, limit) {
+    // Directories are listed under the same limiter as the files are read, so neither wide nor deep trees open their
+    // handles at once. The slot is released once listed, so a directory never holds it while its children wait
+    const entries = await limit(async () => {
+        const listed = [];
+        for await (const entry of directory.entries()) {
+            listed.push(entry);
+        }
+        return listed;
+    });
+
+    await Promise.all(entries.map(([name, handle]) => {
+        const entryPath = path ? path + '/' + name : name;
+        workspace.handles[entryPath] = handle;
+        return handle.kind === 'directory'
+            ? indexSubdirectory(workspace, handle, entryPath, current, addRow, limit)
+            : indexFile(workspace, handle, entryPath, current, addRow, limit);
+    }));
+}
+
+async function indexSubdirectory(workspace, directory, path, current, addRow, limit) {
+    try {
+        await indexDirectory(workspace, directory, path, current, addRow, limit);
+    } catch (err) {
+        // The files of the directory already known are kept as they were, so they aren't notified as removed
+        for(const known in workspace.index) {
+            if(known.startsWith(path + '/') && !(known in current)) {
+                current[known] = workspace.index[known];
+            }
+        }
+        addRow({ path: path, error: err.name, message: err.message });
+    }
+}
+
+async function indexFile(workspace, handle, path, current, addRow, limit) {
+    const known = workspace.index[path];
+
+    try {
+        // Only the files that have changed are read, a few at a time so neither their metadata nor their contents
+        // are requested at once
+        const row = await limit(async () => {
+            const file = await handle.getFile();
+            if(known && known.size === file.size && known.lastModified === file.lastModified) {
+                return null;
+            }
+            return {
+                path: path,
+                size: file.size,
+                lastModified: file.lastModified,
+                fingerprint: await fingerprintOf(file)
+            };
+        });
+
+        current[path] = row || known;
+        if(row) {
+            addRow(row);
+        }
+    } catch (err) {
+        // A file that can't be read doesn't fail the refresh. Its known entry is kept, so it's read again next time
+        if(known) {
+            current[path] = known;
+        }
+        addRow({ path: path, error: err.name, message: err.message });
+    }
+}
+
+const FINGERPRINT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+// SHA-256 of the concatenated SHA-256 of each chunk of the file, so only a chunk is held in memory at once
+async function fingerprintOf(file) {
+    const digests = new Uint8Array(Math.max(1, Math.ceil(file.size / FINGERPRINT_CHUNK_SIZE)) * 32);
+
+    for(let start = 0, i = 0; i === 0 || start < file.size; start += FINGERPRINT_CHUNK_SIZE, ++i) {
+        const chunk = await file.slice(start, start + FINGERPRINT_CHUNK_SIZE).arrayBuffer();
+        digests.set(new Uint8Array(await crypto.subtle.digest('SHA-256', chunk)), i * 32);
+    }
+
+    const digest = await crypto.subtle.digest('SHA-256', digests);
+    return Array.from(new Uint8Array(digest), byte => byte.toString(16).padStart(2, '0')).join('');
+}
+
+function concurrencyLimiter(max) {
+    let running = 0;
+    const queue = [];
+
+    const next = () => {
+        if(running >= max || queue.length === 0) {
+            return;
+        }
+        running++;
+        const { task, resolve, reject } = queue.shift();
+        task().then(resolve, reject).finally(() => {
+            running--;
+            next();
+        });
+    };
+
+    return task => new Promise((resolve, reject) => {
+        queue.push({ task, resolve, reject });
+        next();
+    });
+}
+
+window.commitWorkspaceIndex = function(editorId, workspaceId, requestId) {
+    const workspace = workspaceOf(editorId, workspaceId);
+
+    // Until the server confirms it, the index isn't replaced, so a lost refresh is sent again by the next one
+    if(workspace && workspace.pendingIndex && workspace.pendingIndex.requestId === requestId) {
+        workspace.index = workspace.pendingIndex.entries;
+        workspace.pendingIndex = null;
+    }
+}
+
+window.openWorkspaceFile = async function(editorId, workspaceId, path) {
+    const editor = editorOf(editorId);
+    const workspace = workspaceOf(editorId, workspaceId);
+
+    if(!workspace) {
+        return {
+           "error": 'MissingWorkspaceError',
+           "message": "There is no opened workspace"
+        }
+    }
+
+    try {
+        editor.fileHandle = await workspaceHandleOf(workspace, path, 'file');
+        forgetLastWrite(editor);
+
+        if(!await verifyPermission(editor.fileHandle, true)) {
             return {
                 'error': 'PermissionNotGrantedError',
                 'message': 'User did not grant permission'
             };
         }
+
+        return await getFileInfoAsJson(editor);
     } catch (err) {
         const json = {};
         json.error = err.name;
@@ -37,6 +370,143 @@ window.openFile = async function(fileTypes) {
     }
 }
 
+window.closeWorkspace = function(editorId, workspaceId) {
+    delete editorOf(editorId).workspaces[workspaceId]; // Frees the handles of the entries
+}
+
+window.readFileContent = async function(editorId) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "It's not possible to read because no file was open before"
+        }
+    }
+
+    try {
+        return await getFileInfoAsJson(editor);
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+window.getFileInfo = async function(editorId) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "There is no opened file"
+        }
+    }
+
+    try {
+        return await getFileInfoAsJson(editor, false);
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+window.readFileSlice = async function(editorId, start, end) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "It's not possible to read because no file was open before"
+        }
+    }
+
+    try {
+        const file = await editor.fileHandle.getFile();
+        return { data: await asBase64(file.slice(start, end)) };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+function asBase64(blob) {
+    return new Promise((resolve, reject) => {
+        const reader = new FileReader();
+        reader.onload = () => resolve(reader.result.substring(reader.result.indexOf(',') + 1)); // Removes the data URL header
+        reader.onerror = () => reject(reader.error);
+        reader.readAsDataURL(blob);
+    });
+}
+
+window.openFileStreaming = async function(editorId, fileTypes, element, attribute, compressionThreshold, compressionFormat) {
+    const editor = editorOf(editorId);
+
+    try {
+        const error = await pickFileToOpen(editor, fileTypes);
+        if(error) {
+            return error;
+        }
+
+        const json = await getFileInfoAsJson(editor, false);
+        const file = await editor.fileHandle.getFile();
+        json.compressed = file.size >= compressionThreshold;
+
+        const body = json.compressed ? await compress(file, compressionFormat) : file;
+        uploadFileContent(body, element, attribute); // Not awaited: the content is read by the server while it's uploaded
+
+        return json;
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+async function pickFileToOpen(editor, fileTypes) {
+    const [handle] = await window.showOpenFilePicker(fileTypes);
+
+    editor.fileHandle = handle;
+    forgetLastWrite(editor);
+
+    if(await verifyPermission(editor.fileHandle, true)) {
+        return null;
+    } else {
+        return {
+            'error': 'PermissionNotGrantedError',
+            'message': 'User did not grant permission'
+        };
+    }
+}
+
+async function compress(file, format) {
+    // Collected in a blob since a streamed request body isn't supported over HTTP/1.1
+    return new Response(file.stream().pipeThrough(new CompressionStream(format))).blob();
+}
+
+function uploadFileContent(file, element, attribute) {
+    const notifyFailure = message => element.dispatchEvent(new CustomEvent('lfe-open-stream-failed', {
+        detail: { attribute: attribute, message: message }
+    }));
+
+    // The file is sent as the body so the browser streams it from disk, without reading it in memory
+    fetch(element.getAttribute(attribute), {
+        method: 'POST',
+        body: file,
+        headers: { 'Content-Type': 'application/octet-stream' }
+    }).then(response => {
+        if(!response.ok) {
+            notifyFailure("The content could not be uploaded. Status: " + response.status);
+        }
+    }).catch(err => notifyFailure(err.message));
+}
+
 async function verifyPermission(fileHandle, withWrite) {
     const opts = {};
     if (withWrite) {
@@ -57,19 +527,29 @@ async function verifyPermission(fileHandle, withWrite) {
     return false;
 }
 
-async function getFileInfoAsJson(fileHandle) {
-    const file = await fileHandle.getFile();
+async function getFileInfoAsJson(editor, withContent = true) {
+    const file = await editor.fileHandle.getFile();
 
     const json = {};
     json.name = file.name;
     json.size = file.size;
     json.type = file.type;
-    json.content = await file.text();
+    editor.fileInfo = { ...json };
+    if(withContent) {
+        json.content = await file.text();
+    }
     return json;
 }
 
-window.saveFile = async function(content) {
-    if(!fileHandle) {
+function forgetLastWrite(editor) {
+    editor.lastWrittenContent = null;
+    editor.lastWrittenVersion = null;
+}
+
+window.saveFile = async function(editorId, content, version, keepsBase) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
         return {
            "error": 'MissingFileError',
            "message": "It's not possible to save because no file was open before"
@@ -77,9 +557,16 @@ window.saveFile = async function(content) {
     }
 
     try {
-        const writable = await fileHandle.createWritable();
+        const writable = await editor.fileHandle.createWritable();
         await writable.write(content);
         await writable.close();
+        if(keepsBase) { // Kept only when the server sends deltas, otherwise it would be a useless copy of the file
+            editor.lastWrittenContent = content;
+            editor.lastWrittenVersion = version;
+        } else {
+            forgetLastWrite(editor);
+        }
+        await getFileInfoAsJson(editor, false); // Refresh the metadata, the size may have changed
         return { "message": "File saved" };
     } catch (err) {
         const json = {};
@@ -89,8 +576,128 @@ window.saveFile = async function(content) {
     }
 }
 
-window.closeFile = async function() {
-    if(!fileHandle) {
+window.saveFiles = async function(saves) {
+    // Written concurrently, each result is returned at the position of its save. saveFile never rejects
+    return Promise.all(saves.map(save => saveFile(save.editorId, save.content, save.version, save.keepsBase)));
+}
+
+window.saveFileFromUrl = async function(editorId, url, version, compressionFormat, keepsBase) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "It's not possible to save because no file was open before"
+        }
+    }
+
+    try {
+        const response = await fetch(url);
+        if(!response.ok) {
+            return {
+               "error": 'NetworkError',
+               "message": "The content to save could not be fetched. Status: " + response.status
+            }
+        }
+
+        const content = compressionFormat
+            ? response.body.pipeThrough(new DecompressionStream(compressionFormat))
+            : response.body;
+        const writable = await editor.fileHandle.createWritable();
+        if(keepsBase) { // The text is decoded while it's written, to be the base of the next delta
+            const [toFile, toBase] = content.tee();
+            const [, text] = await Promise.all([toFile.pipeTo(writable), new Response(toBase).text()]);
+            editor.lastWrittenContent = text;
+            editor.lastWrittenVersion = version;
+        } else {
+            await content.pipeTo(writable); // Closes the writable once the whole content is written
+            forgetLastWrite(editor); // The content isn't kept, so it can't be the base of a delta
+        }
+        await getFileInfoAsJson(editor, false); // Refresh the metadata, the size may have changed
+        return { "message": "File saved" };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+window.saveFileDelta = async function(editorId, baseVersion, version, start, end, insert) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "It's not possible to save because no file was open before"
+        }
+    }
+
+    if(editor.lastWrittenContent === null || editor.lastWrittenVersion !== baseVersion) {
+        return {
+           "error": 'VersionMismatchError',
+           "message": "The last written content isn't the base of the delta"
+        }
+    }
+
+    const content = editor.lastWrittenContent.substring(0, start) + insert + editor.lastWrittenContent.substring(end);
+    return saveFile(editorId, content, version, true);
+}
+
+window.writeFileRange = async function(editorId, offset, data) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "It's not possible to write because no file was open before"
+        }
+    }
+
+    try {
+        const writable = await editor.fileHandle.createWritable({ keepExistingData: true });
+        await writable.write({ type: "write", position: offset, data: data });
+        await writable.close();
+        forgetLastWrite(editor);
+        await getFileInfoAsJson(editor, false); // Refresh the metadata, the size may have changed
+        return { "message": "File range written" };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+window.truncateFile = async function(editorId, size) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
+        return {
+           "error": 'MissingFileError',
+           "message": "It's not possible to truncate because no file was open before"
+        }
+    }
+
+    try {
+        const writable = await editor.fileHandle.createWritable({ keepExistingData: true });
+        await writable.truncate(size);
+        await writable.close();
+        forgetLastWrite(editor);
+        await getFileInfoAsJson(editor, false); // Refresh the metadata, the size may have changed
+        return { "message": "File truncated" };
+    } catch (err) {
+        const json = {};
+        json.error = err.name;
+        json.message = err.message;
+        return json;
+    }
+}
+
+window.closeFile = async function(editorId, withContent) {
+    const editor = editorOf(editorId);
+
+    if(!editor.fileHandle) {
         return {
            "error": 'MissingFileError',
            "message": "There is no file to close"
@@ -98,8 +705,16 @@ window.closeFile = async function() {
     }
 
     try {
-        const file = getFileInfoAsJson(fileHandle);
-        fileHandle = null;
+        // Unless the content is requested, the cached metadata is returned so the file isn't read again
+        const file = withContent ? await getFileInfoAsJson(editor) : { ...editor.fileInfo };
+        if(Object.keys(editor.workspaces).length > 0) {
+            // The workspaces outlive their files, only the state of the file is freed
+            editor.fileHandle = null;
+            editor.fileInfo = null;
+            forgetLastWrite(editor);
+        } else {
+            delete lfeEditors[editorId]; // Frees the handler and the rest of the state of the editor
+        }
         return file;
     } catch (err) {
         const json = {};
@@ -1,24 +1,36 @@
 package org.vaadin.addons.sfernandez.lfe;
 
+import com.vaadin.flow.component.PushConfiguration;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.server.Command;
+import com.vaadin.flow.shared.communication.PushMode;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+import org.vaadin.addons.sfernandez.lfe.setup.LfeAutosaveFrequencyPolicy;
 import org.vaadin.addons.sfernandez.lfe.setup.LfeAutosaveSetup;
 
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 class LfeAutosaveTest {
 
@@ -57,7 +69,60 @@ class LfeAutosaveTest {
         autosave.setup(setup);
     }
 
+    @AfterEach
+    void tearDown() {
+        if(autosave != null && autosave.isWorking())
+            autosave.stop();
+    }
+
     //---- Methods ----
+    private Runnable setupWithManualTicks(Supplier<String> dataToSave) {
+        return setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(dataToSave));
+    }
+
+    private Runnable setupWithManualTicks(LfeAutosaveSetup.Builder setupBuilder) {
+        AtomicReference<Runnable> tick = new AtomicReference<>();
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        Mockito.when(scheduler.scheduleAtFixedRate(Mockito.any(), Mockito.any(), Mockito.any()))
+                .then(invocation -> {
+                    tick.set(invocation.getArgument(0));
+                    return Mockito.mock(ScheduledFuture.class);
+                });
+
+        autosave.setup(setupBuilder
+                .frequency(Duration.ofMillis(10L))
+                .scheduler(scheduler)
+                .build());
+        autosave.start();
+
+        return tick.get();
+    }
+
+    private List<Duration> setupWithAdaptiveTicks(LfeAutosaveSetup.Builder setupBuilder, Queue<Runnable> ticks) {
+        List<Duration> delays = new ArrayList<>();
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        Mockito.when(scheduler.schedule(Mockito.any(), Mockito.any()))
+                .then(invocation -> {
+                    ticks.add(invocation.getArgument(0));
+                    delays.add(invocation.getArgument(1));
+                    return Mockito.mock(ScheduledFuture.class);
+                });
+
+        autosave.setup(setupBuilder
+                .scheduler(scheduler)
+                .build());
+        autosave.start();
+
+        return delays;
+    }
+
+    private void enablePush(final PushMode pushMode) {
+        PushConfiguration pushConfiguration = Mockito.mock(PushConfiguration.class);
+        Mockito.when(pushConfiguration.getPushMode()).thenReturn(pushMode);
+        Mockito.when(mockedUi.getPushConfiguration()).thenReturn(pushConfiguration);
+    }
+
     private PrintStream mockSystemStandardOut() {
         PrintStream standardOut = Mockito.mock(PrintStream.class);
         System.setOut(standardOut);
@@ -290,19 +355,225 @@ class LfeAutosaveTest {
     }
 
     @Test
-    void afterLosingReference_itsExecutorService_isShutDownedTest() throws InterruptedException {
-        ExecutorService executorService = autosave.getExecutorService();
-        autosave = null;
+    void afterStart_withPushEnabled_thenItReliesOnPushTest() {
+        autosave.setup(new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .relyOnPushWhenEnabled(true)
+                .build());
+        enablePush(PushMode.AUTOMATIC);
+
+        autosave.start();
+
+        assertThat(autosave.isRelyingOnPush()).isTrue();
+    }
+
+    @Test
+    void afterStart_withPushDisabled_thenItDoesNotRelyOnPushTest() {
+        enablePush(PushMode.DISABLED);
+
+        autosave.start();
+
+        assertThat(autosave.isRelyingOnPush()).isFalse();
+    }
+
+    @Test
+    void afterStartAndStop_allowingToAlterUiPollInterval_withPushEnabled_thenUiPollIntervalIsNotAlteredTest() {
+        LfeAutosaveSetup setup = new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .allowToAlterUiPollInterval(true)
+                .relyOnPushWhenEnabled(true)
+                .build();
+        autosave.setup(setup);
+        enablePush(PushMode.AUTOMATIC);
+        Mockito.when(mockedUi.getPollInterval()).thenReturn(-1);
+
+        autosave.start();
+        autosave.stop();
+
+        Mockito.verify(mockedUi, Mockito.never()).setPollInterval(Mockito.anyInt());
+    }
+
+    @Test
+    void afterStart_withoutAllowingToAlterUiPollInterval_withPushEnabled_thenNoWarningIsShownTest() {
+        PrintStream standardOut = mockSystemStandardOut();
+        LfeAutosaveSetup setup = new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .allowToAlterUiPollInterval(false)
+                .relyOnPushWhenEnabled(true)
+                .build();
+        autosave.setup(setup);
+        enablePush(PushMode.AUTOMATIC);
+        Mockito.when(mockedUi.getPollInterval()).thenReturn(-1);
+
+        autosave.start();
+
+        Mockito.verifyNoInteractions(standardOut);
+    }
+
+    @Test
+    void afterStart_byDefault_withPushEnabled_thenUIPollIntervalIsStillAlteredTest() {
+        LfeAutosaveSetup setup = new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .allowToAlterUiPollInterval(true)
+                .build();
+        autosave.setup(setup);
+        enablePush(PushMode.AUTOMATIC);
+        Mockito.when(mockedUi.getPollInterval()).thenReturn(-1);
+
+        autosave.start();
+
+        assertThat(autosave.isRelyingOnPush()).isFalse();
+        Mockito.verify(mockedUi).setPollInterval((int) setup.frequency().toMillis());
+    }
+
+    @Test
+    void afterStart_withoutRelyingOnPush_withPushEnabled_thenUIPollIntervalIsAutosaveFrequencyTest() {
+        LfeAutosaveSetup setup = new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .allowToAlterUiPollInterval(true)
+                .relyOnPushWhenEnabled(false)
+                .build();
+        autosave.setup(setup);
+        enablePush(PushMode.AUTOMATIC);
+        Mockito.when(mockedUi.getPollInterval()).thenReturn(-1);
+
+        autosave.start();
+
+        assertThat(autosave.isRelyingOnPush()).isFalse();
+        Mockito.verify(mockedUi).setPollInterval((int) setup.frequency().toMillis());
+    }
+
+    @Test
+    void tick_withManualPush_pushesTheSaveRequestTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> new CompletableFuture<>());
+        enablePush(PushMode.MANUAL);
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(() -> "Data to save")
+                .relyOnPushWhenEnabled(true));
 
-        for(int i = 0; i < 10; ++i) {
-            System.gc();
-            Thread.sleep(10);
+        tick.run();
 
-            if(executorService.isShutdown())
-                break;
+        Mockito.verify(mockedUi).push();
+    }
+
+    @Test
+    void tick_withAutomaticPush_doesNotPushManuallyTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> new CompletableFuture<>());
+        enablePush(PushMode.AUTOMATIC);
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(() -> "Data to save")
+                .relyOnPushWhenEnabled(true));
+
+        tick.run();
+
+        Mockito.verify(mockedUi, Mockito.never()).push();
+    }
+
+    @Test
+    void afterStop_itDoesNotRelyOnPushAnymoreTest() {
+        autosave.setup(new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .relyOnPushWhenEnabled(true)
+                .build());
+        enablePush(PushMode.AUTOMATIC);
+        autosave.start();
+
+        autosave.stop();
+
+        assertThat(autosave.isRelyingOnPush()).isFalse();
+    }
+
+    @Test
+    void afterStart_firstTickIsExecutedImmediately_byDefaultTest() {
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        autosave.setup(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(String::new)
+                .scheduler(scheduler)
+                .build());
+
+        autosave.start();
+
+        Mockito.verify(scheduler).scheduleAtFixedRate(Mockito.any(), Mockito.eq(Duration.ZERO), Mockito.any());
+    }
+
+    @Test
+    void afterStart_withInitialDelayJitter_firstTickIsDelayedUpToTheJitterTest() {
+        Duration jitter = Duration.ofMillis(50L);
+        ArgumentCaptor<Duration> initialDelay = ArgumentCaptor.forClass(Duration.class);
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        autosave.setup(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(String::new)
+                .initialDelayJitter(jitter)
+                .scheduler(scheduler)
+                .build());
+
+        for(int i = 0; i < 100; ++i)
+            autosave.start();
+
+        Mockito.verify(scheduler, Mockito.times(100)).scheduleAtFixedRate(Mockito.any(), initialDelay.capture(), Mockito.any());
+        assertThat(initialDelay.getAllValues()).allMatch(delay -> !delay.isNegative() && delay.compareTo(jitter) <= 0);
+        assertThat(initialDelay.getAllValues()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void afterStart_spreadingTicksOverFrequency_firstTicksAreSpreadEvenlyOverThePeriodTest() {
+        int numOfProcesses = 4_000;
+        int numOfBuckets = 10;
+        Duration frequency = Duration.ofSeconds(1);
+        int[] processesPerBucket = new int[numOfBuckets];
+        Queue<Runnable> ticks = new LinkedList<>();
+
+        for(int i = 0; i < numOfProcesses; ++i) {
+            List<Duration> delays = setupWithAdaptiveTicks(new LfeAutosaveSetup.Builder()
+                    .frequency(frequency)
+                    .frequencyPolicy(LfeAutosaveFrequencyPolicy.exponentialBackoff(2, Duration.ofSeconds(2)))
+                    .spreadTicksOverFrequency(true)
+                    .dataToSaveSupplier(String::new), ticks);
+            Duration initialDelay = delays.get(0);
+
+            assertThat(initialDelay).isGreaterThanOrEqualTo(Duration.ZERO).isLessThan(frequency);
+            ++processesPerBucket[(int) (initialDelay.toNanos() * numOfBuckets / frequency.toNanos())];
         }
 
-        assertThat(executorService.isShutdown()).isTrue();
+        int expectedPerBucket = numOfProcesses / numOfBuckets;
+        for(int processes : processesPerBucket)
+            assertThat(processes).isBetween(expectedPerBucket / 2, expectedPerBucket * 3 / 2);
+    }
+
+    @Test
+    void autosaves_shareTheSameScheduler_byDefaultTest() {
+        LfeAutosave otherAutosave = new LfeAutosave(mockedEditor);
+        otherAutosave.setup(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(String::new)
+                .build());
+
+        assertThat(autosave.getScheduler()).isSameAs(LfeAutosaveScheduler.shared());
+        assertThat(otherAutosave.getScheduler()).isSameAs(autosave.getScheduler());
+    }
+
+    @Test
+    void afterStart_tickIsRegisteredInTheSetupSchedulerTest() {
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        Mockito.when(scheduler.scheduleAtFixedRate(Mockito.any(), Mockito.any(), Mockito.any()))
+                .then(invocation -> Mockito.mock(ScheduledFuture.class));
+        LfeAutosaveSetup setup = new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofMillis(10L))
+                .dataToSaveSupplier(String::new)
+                .scheduler(scheduler)
+                .build();
+        autosave.setup(setup);
+
+        autosave.start();
+
+        Mockito.verify(scheduler).scheduleAtFixedRate(Mockito.any(), Mockito.eq(Duration.ZERO), Mockito.eq(setup.frequency()));
     }
 
     @Test
@@ -318,7 +589,7 @@ class LfeAutosaveTest {
                 .build();
         autosave.setup(setup);
 
-        Mockito.when(mockedEditor.saveFile(Mockito.any()))
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
                 .then(invocation -> {
                     if(autosaveExecutions.incrementAndGet() >= 5)
                         contentSavedFiveTimes.complete(true);
@@ -331,7 +602,7 @@ class LfeAutosaveTest {
         autosave.start();
 
         contentSavedFiveTimes.get();
-        Mockito.verify(mockedEditor, Mockito.atLeast(5)).saveFile(Mockito.anyString());
+        Mockito.verify(mockedEditor, Mockito.atLeast(5)).autosaveFile(Mockito.anyString());
     }
 
     @Test
@@ -345,7 +616,7 @@ class LfeAutosaveTest {
                 .build();
         autosave.setup(setup);
 
-        Mockito.when(mockedEditor.saveFile(Mockito.any()))
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
                 .then(invocation -> {
                     if(autosaveExecutions.incrementAndGet() >= 5)
                         contentSavedFiveTimes.complete(true);
@@ -358,7 +629,7 @@ class LfeAutosaveTest {
         try {
             contentSavedFiveTimes.get(setup.frequency().toMillis() * 6, TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
-            Mockito.verify(mockedEditor, Mockito.atMost(1)).saveFile("");
+            Mockito.verify(mockedEditor, Mockito.atMost(1)).autosaveFile("");
         }
     }
 
@@ -373,7 +644,7 @@ class LfeAutosaveTest {
                 .build();
         autosave.setup(setup);
 
-        Mockito.when(mockedEditor.saveFile(Mockito.any()))
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
                 .then(invocation -> {
                     if(autosaveExecutions.incrementAndGet() >= 5)
                         autosaveTries.complete(true);
@@ -384,12 +655,12 @@ class LfeAutosaveTest {
         autosave.start();
 
         autosaveTries.get();
-        Mockito.verify(mockedEditor, Mockito.atLeast(5)).saveFile("");
+        Mockito.verify(mockedEditor, Mockito.atLeast(5)).autosaveFile("");
     }
 
     @Test
     void start_whenAutosaveIsAlreadyRunning_stopBeforeRestartingTest() throws InterruptedException {
-        Mockito.when(mockedEditor.saveFile(Mockito.any()))
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
                 .then(invocation -> new CompletableFuture<>());
         autosave.start();
 
@@ -413,7 +684,7 @@ class LfeAutosaveTest {
                 .dataToSaveSupplier(() -> dataToSave)
                 .build()
         );
-        Mockito.when(mockedEditor.saveFile(dataToSave))
+        Mockito.when(mockedEditor.autosaveFile(dataToSave))
                 .then(invocation -> CompletableFuture.completedFuture(Optional.of(dataToSave)));
         CompletableFuture<LfeSaveFileEvent> autosaveOperation = new CompletableFuture<>();
         Mockito.doAnswer(invocation -> autosaveOperation.complete(invocation.getArgument(0)))
@@ -428,4 +699,273 @@ class LfeAutosaveTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void tick_doesNotWaitForTheSaveToCompleteTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> new CompletableFuture<>());
+        Runnable tick = setupWithManualTicks(() -> "Data to save");
+
+        assertTimeoutPreemptively(Duration.ofMillis(500L), tick::run);
+        Mockito.verify(mockedEditor).autosaveFile("Data to save");
+    }
+
+    @Test
+    void tick_doesNothing_whileThePreviousSaveIsInProgressTest() {
+        CompletableFuture<Optional<String>> saving = new CompletableFuture<>();
+        AtomicReference<String> dataToSave = new AtomicReference<>("First");
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any())).then(invocation -> saving);
+        Runnable tick = setupWithManualTicks(dataToSave::get);
+
+        tick.run();
+        dataToSave.set("Second");
+        tick.run();
+
+        Mockito.verify(mockedEditor, Mockito.times(1)).autosaveFile(Mockito.any());
+    }
+
+    @Test
+    void tick_launchesANewSave_afterThePreviousOneCompletesTest() {
+        CompletableFuture<Optional<String>> saving = new CompletableFuture<>();
+        AtomicReference<String> dataToSave = new AtomicReference<>("First");
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any())).then(invocation -> saving);
+        Runnable tick = setupWithManualTicks(dataToSave::get);
+
+        tick.run();
+        saving.complete(Optional.of("First"));
+        dataToSave.set("Second");
+        tick.run();
+
+        Mockito.verify(mockedEditor).autosaveFile("First");
+        Mockito.verify(mockedEditor).autosaveFile("Second");
+    }
+
+    @Test
+    void tick_withContentVersion_doesNotGetTheData_whenVersionHasNotChangedTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        AtomicInteger dataRequests = new AtomicInteger(0);
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(() -> "Data " + dataRequests.incrementAndGet())
+                .contentVersionSupplier(() -> 1L));
+
+        tick.run();
+        tick.run();
+        tick.run();
+
+        assertThat(dataRequests).hasValue(1);
+        Mockito.verify(mockedEditor, Mockito.times(1)).autosaveFile(Mockito.any());
+    }
+
+    @Test
+    void tick_withContentVersion_savesTheData_whenVersionHasChangedTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        AtomicLong version = new AtomicLong(1L);
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(() -> "Data " + version.get())
+                .contentVersionSupplier(version::get));
+
+        tick.run();
+        version.incrementAndGet();
+        tick.run();
+
+        Mockito.verify(mockedEditor).autosaveFile("Data 1");
+        Mockito.verify(mockedEditor).autosaveFile("Data 2");
+    }
+
+    @Test
+    void tick_afterMarkingAsDirty_savesTheData_evenIfItHasNotChangedTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        Runnable tick = setupWithManualTicks(() -> "Data");
+
+        tick.run();
+        tick.run();
+        autosave.markDirty();
+        tick.run();
+        tick.run();
+
+        Mockito.verify(mockedEditor, Mockito.times(2)).autosaveFile("Data");
+    }
+
+    @Test
+    void tick_usingFingerprints_doesNotSaveTheData_whenItHasNotChangedTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        AtomicReference<String> dataToSave = new AtomicReference<>("Data");
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .dataToSaveSupplier(() -> new String(dataToSave.get()))
+                .useFingerprintsToDetectChanges(true));
+
+        tick.run();
+        tick.run();
+        dataToSave.set("Changed data");
+        tick.run();
+        tick.run();
+
+        Mockito.verify(mockedEditor, Mockito.times(1)).autosaveFile("Data");
+        Mockito.verify(mockedEditor, Mockito.times(1)).autosaveFile("Changed data");
+    }
+
+    @Test
+    void adaptiveTicks_backOff_whileThereAreNoChanges_andReturnToTheFrequency_whenThereAreChangesTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        AtomicReference<String> dataToSave = new AtomicReference<>("Data");
+        Queue<Runnable> ticks = new LinkedList<>();
+        List<Duration> delays = setupWithAdaptiveTicks(new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofSeconds(1))
+                .frequencyPolicy(LfeAutosaveFrequencyPolicy.exponentialBackoff(2, Duration.ofSeconds(4)))
+                .dataToSaveSupplier(dataToSave::get), ticks);
+
+        for(int i = 0; i < 4; ++i)
+            ticks.remove().run();
+        dataToSave.set("Changed data");
+        ticks.remove().run();
+
+        assertThat(delays).containsExactly(
+                Duration.ZERO,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(4),
+                Duration.ofSeconds(4),
+                Duration.ofSeconds(1));
+    }
+
+    @Test
+    void adaptiveTicks_areNotScheduledAnymore_afterStoppingTest() {
+        Queue<Runnable> ticks = new LinkedList<>();
+        List<Duration> delays = setupWithAdaptiveTicks(new LfeAutosaveSetup.Builder()
+                .frequencyPolicy(LfeAutosaveFrequencyPolicy.exponentialBackoff(2, Duration.ofSeconds(4)))
+                .dataToSaveSupplier(String::new), ticks);
+
+        autosave.stop();
+        ticks.remove().run();
+
+        assertThat(delays).containsExactly(Duration.ZERO);
+    }
+
+    @Test
+    void adaptiveTicks_whenAutosaveFails_leaveASinglePendingTickTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any())).thenThrow(new RuntimeException("Save failed"));
+        Queue<Runnable> ticks = new LinkedList<>();
+        setupWithAdaptiveTicks(new LfeAutosaveSetup.Builder()
+                .frequencyPolicy(LfeAutosaveFrequencyPolicy.exponentialBackoff(2, Duration.ofSeconds(4)))
+                .dataToSaveSupplier(() -> "Data"), ticks);
+
+        for(int i = 0; i < 3; ++i)
+            ticks.remove().run();
+
+        assertThat(ticks).hasSize(1);
+        assertThat(autosave.isWorking()).isTrue();
+    }
+
+    @Test
+    void statistics_showTheEffectiveIntervalAndTheTicksTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        Queue<Runnable> ticks = new LinkedList<>();
+        setupWithAdaptiveTicks(new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofSeconds(1))
+                .frequencyPolicy(LfeAutosaveFrequencyPolicy.exponentialBackoff(3, Duration.ofMinutes(1)))
+                .dataToSaveSupplier(() -> "Data"), ticks);
+
+        for(int i = 0; i < 3; ++i)
+            ticks.remove().run();
+        LfeAutosaveStatistics statistics = autosave.statistics();
+
+        assertThat(statistics.effectiveInterval()).isEqualTo(Duration.ofSeconds(9));
+        assertThat(statistics.ticks()).isEqualTo(3);
+        assertThat(statistics.idleTicks()).isEqualTo(2);
+        assertThat(statistics.saves()).isEqualTo(1);
+    }
+
+    @Test
+    void statistics_haveNoEffectiveInterval_whenAutosaveIsNotWorkingTest() {
+        assertThat(autosave.statistics().effectiveInterval()).isNull();
+    }
+
+    @Test
+    void debouncedTick_doesNotSaveTheChanges_whileTheyDoNotStopTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        AtomicInteger edits = new AtomicInteger(0);
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .debounce(Duration.ofHours(1), Duration.ofHours(2))
+                .dataToSaveSupplier(() -> "Edit " + edits.incrementAndGet()));
+
+        for(int i = 0; i < 5; ++i)
+            tick.run();
+
+        Mockito.verify(mockedEditor, Mockito.never()).autosaveFile(Mockito.any());
+    }
+
+    @Test
+    void debouncedTick_savesTheChanges_afterTheQuietPeriodTest() throws InterruptedException {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .debounce(Duration.ofMillis(20L), Duration.ofHours(1))
+                .dataToSaveSupplier(() -> "Data"));
+
+        tick.run();
+        Mockito.verify(mockedEditor, Mockito.never()).autosaveFile(Mockito.any());
+        Thread.sleep(30L);
+        tick.run();
+
+        Mockito.verify(mockedEditor).autosaveFile("Data");
+    }
+
+    @Test
+    void debouncedTick_savesTheChanges_afterTheMaxWait_evenIfTheyDoNotStopTest() throws InterruptedException {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        AtomicInteger edits = new AtomicInteger(0);
+        Runnable tick = setupWithManualTicks(new LfeAutosaveSetup.Builder()
+                .debounce(Duration.ofMillis(20L), Duration.ofMillis(40L))
+                .dataToSaveSupplier(() -> "Edit " + edits.incrementAndGet()));
+
+        tick.run();
+        Thread.sleep(10L);
+        tick.run();
+        Mockito.verify(mockedEditor, Mockito.never()).autosaveFile(Mockito.any());
+        Thread.sleep(40L);
+        tick.run();
+
+        Mockito.verify(mockedEditor, Mockito.times(1)).autosaveFile(Mockito.any());
+    }
+
+    @Test
+    void debouncedAutosave_savesTheChangesOnceTheQuietPeriodEnds_evenIfItIsShorterThanTheFrequencyTest() {
+        Mockito.when(mockedEditor.autosaveFile(Mockito.any()))
+                .then(invocation -> CompletableFuture.completedFuture(Optional.of(invocation.getArgument(0))));
+        autosave.setup(new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofHours(1))
+                .debounce(Duration.ofMillis(20L), Duration.ofHours(1))
+                .dataToSaveSupplier(() -> "Data")
+                .build());
+
+        autosave.start();
+
+        Mockito.verify(mockedEditor, Mockito.timeout(1_000L)).autosaveFile("Data");
+    }
+
+    @Test
+    void markDirty_inDebouncedAutosave_schedulesATickWhenTheQuietPeriodEndsTest() {
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        Mockito.when(scheduler.schedule(Mockito.any(), Mockito.any())).then(invocation -> Mockito.mock(ScheduledFuture.class));
+        autosave.setup(new LfeAutosaveSetup.Builder()
+                .frequency(Duration.ofHours(1))
+                .debounce(Duration.ofMillis(20L), Duration.ofHours(1))
+                .dataToSaveSupplier(() -> "Data")
+                .scheduler(scheduler)
+                .build());
+        autosave.start();
+
+        autosave.markDirty();
+        autosave.markDirty();
+
+        Mockito.verify(scheduler, Mockito.times(1)).schedule(Mockito.any(), Mockito.eq(Duration.ofMillis(20L)));
+    }
+
+}
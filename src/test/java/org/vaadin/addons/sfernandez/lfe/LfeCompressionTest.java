@@ -0,0 +1,90 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LfeCompressionTest {
+
+    //---- Attributes ----
+    private final LfeCompression compression = new LfeCompression();
+
+    //---- Methods ----
+    private byte[] compress(final String content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compression.compress(out, original -> original.write(content.getBytes(StandardCharsets.UTF_8)));
+        return out.toByteArray();
+    }
+
+    //---- Tests ----
+    @Test
+    void statistics_byDefault_areEmptyTest() {
+        LfeCompressionStatistics statistics = compression.statistics();
+
+        assertThat(statistics.compressedSaves()).isZero();
+        assertThat(statistics.decompressedOpens()).isZero();
+        assertThat(statistics.saveCompressionRatio()).isEqualTo(1.0);
+        assertThat(statistics.openCompressionRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    void decompress_readsTheCompressedContentTest() throws IOException {
+        String content = "Line of a log file\n".repeat(500);
+
+        try(InputStream decompressed = compression.decompress(new ByteArrayInputStream(compress(content)))) {
+            assertThat(new String(decompressed.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void compress_countsTheOriginalAndTheCompressedBytesTest() throws IOException {
+        String content = "Line of a log file\n".repeat(500);
+
+        byte[] compressed = compress(content);
+
+        LfeCompressionStatistics statistics = compression.statistics();
+        assertThat(statistics.compressedSaves()).isOne();
+        assertThat(statistics.savedBytes()).isEqualTo(content.length());
+        assertThat(statistics.savedCompressedBytes()).isEqualTo(compressed.length);
+        assertThat(statistics.saveCompressionRatio()).isLessThan(0.1);
+        assertThat(statistics.compressionCpuTime()).isGreaterThanOrEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void decompress_countsTheCompressedAndTheDecompressedBytesTest() throws IOException {
+        String content = "Line of a log file\n".repeat(500);
+        byte[] compressed = compress(content);
+
+        try(InputStream decompressed = compression.decompress(new ByteArrayInputStream(compressed))) {
+            decompressed.readAllBytes();
+        }
+
+        LfeCompressionStatistics statistics = compression.statistics();
+        assertThat(statistics.decompressedOpens()).isOne();
+        assertThat(statistics.openedBytes()).isEqualTo(content.length());
+        assertThat(statistics.openedCompressedBytes()).isEqualTo(compressed.length);
+        assertThat(statistics.openCompressionRatio()).isLessThan(0.1);
+    }
+
+    @Test
+    void decompress_doesNotReadUntilTheFirstReadTest() {
+        InputStream neverReady = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("Read before the first read");
+            }
+        };
+
+        compression.decompress(neverReady);
+
+        assertThat(compression.statistics().openedCompressedBytes()).isZero();
+    }
+
+}
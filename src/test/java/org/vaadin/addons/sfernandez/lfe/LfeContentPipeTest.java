@@ -0,0 +1,130 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LfeContentPipeTest {
+
+    //---- Attributes ----
+    private final LfeContentPipe pipe = new LfeContentPipe(2, Duration.ofSeconds(10));
+
+    //---- Methods ----
+    private CompletableFuture<Void> writeInBackground(final String... chunks) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                OutputStream sink = pipe.sink();
+                for(String chunk : chunks)
+                    sink.write(chunk.getBytes(StandardCharsets.UTF_8));
+                sink.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    //---- Tests ----
+    @Test
+    void source_readsTheWrittenBytesInOrderTest() throws IOException {
+        writeInBackground("First, ", "second, ", "third, ", "fourth");
+
+        String read = new String(pipe.source().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertThat(read).isEqualTo("First, second, third, fourth");
+    }
+
+    @Test
+    void source_afterTheEnd_readsEndOfStreamTest() throws IOException {
+        pipe.sink().write(1);
+        pipe.finish();
+        InputStream source = pipe.source();
+
+        assertThat(source.read()).isEqualTo(1);
+        assertThat(source.read()).isEqualTo(-1);
+        assertThat(source.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void sink_withBufferFull_waitsUntilTheReaderConsumesTest() throws IOException, ExecutionException, InterruptedException, TimeoutException {
+        CompletableFuture<Void> writing = writeInBackground("1", "2", "3");
+
+        assertThrows(TimeoutException.class, () -> writing.get(300, TimeUnit.MILLISECONDS));
+
+        assertThat(pipe.source().read()).isEqualTo('1');
+        writing.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void source_whenWriterFails_readsTheBytesBeforeAndThenTheFailureTest() throws IOException {
+        pipe.sink().write(1);
+        pipe.fail(new IOException("Upload failed"));
+        InputStream source = pipe.source();
+
+        assertThat(source.read()).isEqualTo(1);
+        IOException failure = assertThrows(IOException.class, source::read);
+        assertThat(failure).hasMessage("Upload failed");
+    }
+
+    @Test
+    void fail_afterTheEnd_hasNoEffectTest() throws IOException {
+        pipe.finish();
+        pipe.fail(new IOException("Upload failed"));
+
+        assertThat(pipe.source().read()).isEqualTo(-1);
+    }
+
+    @Test
+    void sink_afterTheEnd_throwsExceptionTest() {
+        pipe.finish();
+
+        assertThrows(IOException.class, () -> pipe.sink().write(1));
+    }
+
+    @Test
+    void sink_whenReaderIsClosed_failsEvenIfItWasWaitingTest() throws IOException {
+        CompletableFuture<Void> writing = writeInBackground("1", "2", "3", "4");
+
+        pipe.source().close();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> writing.get(1, TimeUnit.SECONDS));
+        assertThat(failure).hasRootCauseInstanceOf(IOException.class);
+        assertThat(pipe.isClosedByReader()).isTrue();
+    }
+
+    @Test
+    void source_afterBeingClosed_throwsExceptionTest() throws IOException {
+        pipe.source().close();
+
+        assertThrows(IOException.class, () -> pipe.source().read());
+    }
+
+    @Test
+    void sink_whenReaderStallsForTooLong_failsTheContentTest() {
+        LfeContentPipe stalledPipe = new LfeContentPipe(1, Duration.ofMillis(200));
+
+        CompletableFuture<Void> writing = CompletableFuture.runAsync(() -> {
+            try {
+                stalledPipe.sink().write(1);
+                stalledPipe.sink().write(2);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> writing.get(2, TimeUnit.SECONDS));
+        assertThat(failure).hasRootCauseInstanceOf(IOException.class);
+        assertThrows(IOException.class, () -> stalledPipe.source().readAllBytes());
+    }
+
+}
@@ -0,0 +1,173 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LfeFileChannelTest {
+
+    //---- Constants and Definitions ----
+    private static final int BLOCK_SIZE = 10;
+
+    //---- Attributes ----
+    private final byte[] file = new byte[95];
+    private final List<Long> requestedStarts = new ArrayList<>();
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        for(int i = 0; i < file.length; ++i)
+            file[i] = (byte) i;
+    }
+
+    //---- Methods ----
+    private LfeFileChannel channel(final int maxCachedBlocks, final int readAheadBlocks) {
+        return new LfeFileChannel(file.length, BLOCK_SIZE, maxCachedBlocks, readAheadBlocks, (start, length) -> {
+            requestedStarts.add(start);
+            return CompletableFuture.completedFuture(Arrays.copyOfRange(file, start.intValue(), start.intValue() + length));
+        });
+    }
+
+    private byte[] readAll(final LfeFileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(file.length);
+        while(channel.read(buffer) > 0);
+
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    //---- Tests ----
+    @Test
+    void read_sequentially_readsTheWholeFileTest() throws IOException {
+        assertThat(readAll(channel(4, 1))).isEqualTo(file);
+    }
+
+    @Test
+    void read_atTheEnd_returnsEndOfStreamTest() throws IOException {
+        LfeFileChannel channel = channel(4, 1);
+        channel.position(file.length);
+
+        assertThat(channel.read(ByteBuffer.allocate(1))).isEqualTo(-1);
+    }
+
+    @Test
+    void read_afterSeeking_readsFromTheNewPositionTest() throws IOException {
+        LfeFileChannel channel = channel(4, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(3);
+
+        channel.position(42).read(buffer);
+
+        assertThat(buffer.array()).containsExactly(42, 43, 44);
+        assertThat(channel.position()).isEqualTo(45);
+        assertThat(requestedStarts).containsExactly(40L);
+    }
+
+    @Test
+    void read_onlyRequestsTheBlocksOfTheReadRegionTest() throws IOException {
+        LfeFileChannel channel = channel(4, 0);
+
+        channel.position(50).read(ByteBuffer.allocate(5));
+
+        assertThat(requestedStarts).containsExactly(50L);
+    }
+
+    @Test
+    void read_requestsTheFollowingBlocksInAdvanceTest() throws IOException {
+        LfeFileChannel channel = channel(8, 2);
+
+        channel.read(ByteBuffer.allocate(1));
+
+        assertThat(requestedStarts).containsExactly(0L, 10L, 20L);
+    }
+
+    @Test
+    void read_doesNotRequestBlocksBeyondTheEndTest() throws IOException {
+        LfeFileChannel channel = channel(8, 3);
+
+        channel.position(85).read(ByteBuffer.allocate(1));
+
+        assertThat(requestedStarts).containsExactly(80L, 90L);
+    }
+
+    @Test
+    void read_ofACachedBlock_doesNotRequestItAgainTest() throws IOException {
+        LfeFileChannel channel = channel(4, 0);
+
+        channel.position(3).read(ByteBuffer.allocate(2));
+        channel.position(0).read(ByteBuffer.allocate(2));
+
+        assertThat(requestedStarts).containsExactly(0L);
+    }
+
+    @Test
+    void read_ofAnEvictedBlock_requestsItAgainTest() throws IOException {
+        LfeFileChannel channel = channel(2, 0);
+
+        channel.position(0).read(ByteBuffer.allocate(1));
+        channel.position(10).read(ByteBuffer.allocate(1));
+        channel.position(20).read(ByteBuffer.allocate(1));
+        channel.position(0).read(ByteBuffer.allocate(1));
+
+        assertThat(requestedStarts).containsExactly(0L, 10L, 20L, 0L);
+    }
+
+    @Test
+    void read_whenTheBlockCantBeRead_throwsExceptionTest() {
+        LfeFileChannel channel = new LfeFileChannel(file.length, BLOCK_SIZE, 4, 0, (start, length) ->
+                CompletableFuture.failedFuture(new IllegalStateException("File not found")));
+
+        IOException failure = assertThrows(IOException.class, () -> channel.read(ByteBuffer.allocate(1)));
+        assertThat(failure).hasMessageContaining("File not found");
+    }
+
+    @Test
+    void read_ofABlockWhoseReadTimedOut_requestsItAgainTest() throws IOException {
+        List<CompletableFuture<byte[]>> readings = new ArrayList<>();
+        LfeFileChannel channel = new LfeFileChannel(file.length, BLOCK_SIZE, 4, 0, 50L, (start, length) -> {
+            requestedStarts.add(start);
+            CompletableFuture<byte[]> reading = new CompletableFuture<>();
+            readings.add(reading);
+            return reading;
+        });
+
+        assertThrows(IOException.class, () -> channel.read(ByteBuffer.allocate(1)));
+        readings.get(0).complete(Arrays.copyOfRange(file, 0, BLOCK_SIZE)); // Too late, the request was lost
+        assertThrows(IOException.class, () -> channel.read(ByteBuffer.allocate(1)));
+
+        assertThat(requestedStarts).containsExactly(0L, 0L);
+    }
+
+    @Test
+    void write_throwsExceptionTest() {
+        LfeFileChannel channel = channel(4, 0);
+
+        assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+        assertThrows(NonWritableChannelException.class, () -> channel.truncate(0));
+    }
+
+    @Test
+    void size_isTheSizeOfTheFileTest() throws IOException {
+        assertThat(channel(4, 0).size()).isEqualTo(file.length);
+    }
+
+    @Test
+    void read_afterClosing_throwsExceptionTest() {
+        LfeFileChannel channel = channel(4, 0);
+
+        channel.close();
+
+        assertThat(channel.isOpen()).isFalse();
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+    }
+
+}
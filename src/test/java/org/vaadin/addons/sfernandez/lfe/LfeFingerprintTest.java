@@ -0,0 +1,61 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LfeFingerprintTest {
+
+    //---- Methods ----
+    private String bigContent(char lastChar) {
+        return "a".repeat(LfeFingerprint.PARALLEL_THRESHOLD + 3) + lastChar;
+    }
+
+    //---- Tests ----
+    @Test
+    void sameContents_haveTheSameFingerprintTest() {
+        assertThat(LfeFingerprint.of("Some content")).isEqualTo(LfeFingerprint.of(new StringBuilder("Some content")));
+    }
+
+    @Test
+    void differentContents_haveDifferentFingerprintsTest() {
+        assertThat(LfeFingerprint.of("Some content")).isNotEqualTo(LfeFingerprint.of("Some contenu"));
+        assertThat(LfeFingerprint.of("ab")).isNotEqualTo(LfeFingerprint.of("ba"));
+    }
+
+    @Test
+    void fingerprint_keepsTheContentLengthTest() {
+        assertThat(LfeFingerprint.of("12345").length()).isEqualTo(5);
+    }
+
+    @Test
+    void nullContent_isFingerprintedAsEmptyContentTest() {
+        assertThat(LfeFingerprint.of(null)).isEqualTo(LfeFingerprint.of(""));
+    }
+
+    @Test
+    void bigContents_fingerprintedInParallel_areStableTest() {
+        assertThat(LfeFingerprint.of(bigContent('b'))).isEqualTo(LfeFingerprint.of(bigContent('b')));
+        assertThat(LfeFingerprint.of(bigContent('b'))).isNotEqualTo(LfeFingerprint.of(bigContent('c')));
+    }
+
+    @Test
+    void contentsThatDifferInOneChunk_haveDifferentFingerprintsTest() {
+        StringBuilder content = new StringBuilder("x".repeat(3 * LfeFingerprint.CHUNK_SIZE));
+        LfeFingerprint original = LfeFingerprint.of(content);
+
+        content.setCharAt(LfeFingerprint.CHUNK_SIZE + 7, 'y');
+
+        assertThat(LfeFingerprint.of(content)).isNotEqualTo(original);
+    }
+
+    @Test
+    void matches_isTrue_onlyForTheFingerprintedContentTest() {
+        LfeFingerprint fingerprint = LfeFingerprint.of("Some content");
+
+        assertThat(fingerprint.matches("Some content")).isTrue();
+        assertThat(fingerprint.matches("Some content!")).isFalse();
+        assertThat(fingerprint.matches("Some contenu")).isFalse();
+    }
+
+}
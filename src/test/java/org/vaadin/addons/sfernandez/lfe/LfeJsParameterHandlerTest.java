@@ -10,9 +10,12 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.opentest4j.TestAbortedException;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 import org.vaadin.addons.sfernandez.lfe.parameters.*;
 
+import java.time.Instant;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -396,6 +399,25 @@ class LfeJsParameterHandlerTest {
         );
     }
 
+    @Test
+    void mapToJson_openFileOptions_withMetadataOnly_includeJsonPropertyTest() {
+        OptionsOpenFile options = new OptionsOpenFile();
+        options.setMetadataOnly(true);
+
+        assertThatJsonContains(
+                mapToJsonUsingHandler(options),
+                "\"metadataOnly\": true"
+        );
+    }
+
+    @Test
+    void mapToJson_openFileOptions_byDefault_includeContentTest() {
+        assertThatJsonContains(
+                mapToJsonUsingHandler(new OptionsOpenFile()),
+                "\"metadataOnly\": false"
+        );
+    }
+
     @Test
     void toFileInfo_assignsCorrectly_fileNameTest() {
         JsonValue input = Json.parse(
@@ -467,4 +489,130 @@ class LfeJsParameterHandlerTest {
 
         assertThat(fileInfo.content()).isEqualTo("This is an example content");
     }
-}
\ No newline at end of file
+
+    @Test
+    void isCompressed_onlyWhenTheJsonSaysSoTest() {
+        assertThat(handler.isCompressed(Json.parse("{\"name\": \"file.txt\", \"compressed\": true}"))).isTrue();
+        assertThat(handler.isCompressed(Json.parse("{\"name\": \"file.txt\", \"compressed\": false}"))).isFalse();
+        assertThat(handler.isCompressed(Json.parse("{\"name\": \"file.txt\"}"))).isFalse();
+    }
+
+    @Test
+    void toFileInfo_ofFileLargerThan2GB_saturatesTheSizeTest() {
+        JsonValue input = Json.parse("{\"name\": \"dataset.csv\", \"size\": 5000000000, \"type\": \"text/csv\"}");
+
+        FileInfo fileInfo = handler.mapToFileInfo(input);
+
+        assertThat(fileInfo.size()).isEqualTo(DataSize.ofBytes(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void mapToFileLength_ofFileLargerThan2GB_isExactTest() {
+        JsonValue input = Json.parse("{\"name\": \"dataset.csv\", \"size\": 5000000000, \"type\": \"text/csv\"}");
+
+        assertThat(handler.mapToFileLength(input)).isEqualTo(5_000_000_000L);
+    }
+
+    @Test
+    void mapToFileLength_withoutSize_isZeroTest() {
+        assertThat(handler.mapToFileLength(Json.parse("{\"error\": \"AbortError\"}"))).isZero();
+    }
+
+    @Test
+    void mapToBytes_decodesTheBase64DataTest() {
+        JsonValue input = Json.parse("{\"data\": \"AAH/\"}");
+
+        assertThat(handler.mapToBytes(input)).containsExactly(0, 1, 255);
+    }
+
+    @Test
+    void toFileInfo_withoutContent_hasNullContentTest() {
+        JsonValue input = Json.parse(
+                """
+                {
+                    "name": "file.txt",
+                    "size": 8000,
+                    "type": "text/plain"
+                }
+                """
+        );
+
+        FileInfo fileInfo = handler.mapToFileInfo(input);
+
+        assertThat(fileInfo.content()).isNull();
+    }
+
+    @Test
+    void mapToWorkspaceEntries_ofTheRoot_usesTheNameAsPathTest() {
+        JsonValue input = Json.instance().parse(
+                """
+                [
+                    { "name": "src", "kind": "directory" },
+                    { "name": "pom.xml", "kind": "file" }
+                ]
+                """
+        );
+
+        assertThat(handler.mapToWorkspaceEntries("", input)).containsExactly(
+                new WorkspaceEntry("src", "src", WorkspaceEntry.Kind.DIRECTORY),
+                new WorkspaceEntry("pom.xml", "pom.xml", WorkspaceEntry.Kind.FILE)
+        );
+    }
+
+    @Test
+    void mapToWorkspaceEntries_ofASubdirectory_prefixesItsPathTest() {
+        JsonValue input = Json.instance().parse(
+                """
+                [
+                    { "name": "Main.java", "kind": "file" }
+                ]
+                """
+        );
+
+        assertThat(handler.mapToWorkspaceEntries("src/main", input)).containsExactly(
+                new WorkspaceEntry("src/main/Main.java", "Main.java", WorkspaceEntry.Kind.FILE)
+        );
+    }
+
+    @Test
+    void mapToWorkspaceIndexChanges_separatesTheUpdatedAndTheRemovedRowsTest() {
+        JsonValue input = Json.instance().parse(
+                """
+                [
+                    { "path": "src/Main.java", "size": 3000000000, "lastModified": 1700000000000, "fingerprint": "ab12" },
+                    { "path": "old.txt", "removed": true }
+                ]
+                """
+        );
+
+        WorkspaceIndexChanges changes = handler.mapToWorkspaceIndexChanges(input);
+
+        assertThat(changes.updated()).containsExactly(new WorkspaceIndexEntry(
+                "src/Main.java", 3_000_000_000L, Instant.ofEpochMilli(1_700_000_000_000L), "ab12"));
+        assertThat(changes.removed()).containsExactly("old.txt");
+        assertThat(changes.hasFailures()).isFalse();
+    }
+
+    @Test
+    void mapToWorkspaceIndexChanges_errorRows_areFailuresTest() {
+        JsonValue input = Json.instance().parse(
+                """
+                [
+                    { "path": "a.txt", "size": 3, "lastModified": 1700000000000, "fingerprint": "ab12" },
+                    { "path": "locked.txt", "error": "NotFoundError", "message": "Gone" },
+                    { "path": "private", "error": "NotReadableError", "message": "Denied" }
+                ]
+                """
+        );
+
+        WorkspaceIndexChanges changes = handler.mapToWorkspaceIndexChanges(input);
+
+        assertThat(changes.updated()).extracting(WorkspaceIndexEntry::path).containsExactly("a.txt");
+        assertThat(changes.removed()).isEmpty();
+        assertThat(changes.failed()).containsExactly(
+                Map.entry("locked.txt", new LfeError(LfeError.Type.Opening.NOT_FOUND, "Gone")),
+                Map.entry("private", new LfeError(LfeError.Type.Other.UNKNOWN, "Denied"))
+        );
+    }
+
+}
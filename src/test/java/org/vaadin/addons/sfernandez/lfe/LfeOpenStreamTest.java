@@ -0,0 +1,106 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.StreamVariable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LfeOpenStreamTest {
+
+    //---- Attributes ----
+    private Element element;
+    private LfeOpenStream stream;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        UI.setCurrent(Mockito.mock(UI.class)); // Stream resources are registered in the current UI
+        element = new Span().getElement();
+        stream = LfeOpenStream.register(element, new LfeCompression());
+    }
+
+    @AfterEach
+    void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    //---- Tests ----
+    @Test
+    void register_exposesTheReceiverInTheElementTest() {
+        assertThat(stream.attribute()).startsWith(LfeOpenStream.ATTRIBUTE_PREFIX);
+        assertThat(element.hasAttribute(stream.attribute())).isTrue();
+    }
+
+    @Test
+    void content_readsTheUploadedBytesTest() throws IOException {
+        stream.getOutputStream().write("Uploaded content".getBytes(StandardCharsets.UTF_8));
+        stream.streamingFinished(Mockito.mock(StreamVariable.StreamingEndEvent.class));
+
+        assertThat(new String(stream.content().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("Uploaded content");
+    }
+
+    @Test
+    void content_whenItIsCompressed_readsTheDecompressedBytesTest() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("Uploaded content".getBytes(StandardCharsets.UTF_8));
+        }
+        stream.announce(16, true);
+
+        stream.getOutputStream().write(compressed.toByteArray());
+        stream.streamingFinished(Mockito.mock(StreamVariable.StreamingEndEvent.class));
+
+        assertThat(new String(stream.content().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("Uploaded content");
+    }
+
+    @Test
+    void streamingFinished_unregistersTheReceiverTest() {
+        stream.streamingFinished(Mockito.mock(StreamVariable.StreamingEndEvent.class));
+
+        assertThat(element.hasAttribute(stream.attribute())).isFalse();
+    }
+
+    @Test
+    void streamingFailed_makesTheContentFailAndUnregistersTheReceiverTest() {
+        StreamVariable.StreamingErrorEvent event = Mockito.mock(StreamVariable.StreamingErrorEvent.class);
+        Mockito.when(event.getException()).thenReturn(new IOException("Connection reset"));
+
+        stream.streamingFailed(event);
+
+        IOException failure = assertThrows(IOException.class, () -> stream.content().read());
+        assertThat(failure).hasRootCauseMessage("Connection reset");
+        assertThat(element.hasAttribute(stream.attribute())).isFalse();
+    }
+
+    @Test
+    void cancel_makesTheContentFailAndUnregistersTheReceiverTest() {
+        stream.cancel("The file couldn't be opened.");
+
+        assertThrows(IOException.class, () -> stream.content().read());
+        assertThat(element.hasAttribute(stream.attribute())).isFalse();
+    }
+
+    @Test
+    void isInterrupted_onceTheContentIsClosedTest() throws IOException {
+        InputStream content = stream.content();
+        assertThat(stream.isInterrupted()).isFalse();
+
+        content.close();
+
+        assertThat(stream.isInterrupted()).isTrue();
+    }
+
+}
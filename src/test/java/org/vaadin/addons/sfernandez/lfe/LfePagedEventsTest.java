@@ -0,0 +1,120 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileInfo;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LfePagedEventsTest {
+
+    //---- Attributes ----
+    private List<List<WorkspaceEntry>> delivered;
+    private LfePagedEvents<WorkspaceEntry> listing;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        delivered = new ArrayList<>();
+        LfeJsParameterHandler handler = new LfeJsParameterHandler();
+        listing = new LfePagedEvents<>(detail -> handler.mapToWorkspaceEntries("src", detail.get("entries")), delivered::add);
+    }
+
+    //---- Methods ----
+    private JsonObject page(final int index, final String... names) {
+        JsonArray entries = Json.createArray();
+        for(String name : names) {
+            JsonObject entry = Json.createObject();
+            entry.put("name", name);
+            entry.put("kind", "file");
+            entries.set(entries.length(), entry);
+        }
+
+        JsonObject json = Json.createObject();
+        json.put("index", index);
+        json.put("entries", entries);
+        return json;
+    }
+
+    private JsonObject fileRead(final int index, final String name) {
+        JsonObject json = Json.createObject();
+        json.put("index", index);
+        json.put("name", name);
+        json.put("size", name.length());
+        json.put("type", "text/plain");
+        json.put("content", name);
+        return json;
+    }
+
+    private JsonObject fileFailed(final int index) {
+        JsonObject json = Json.createObject();
+        json.put("index", index);
+        json.put("error", "NotReadableError");
+        json.put("message", "The file couldn't be read");
+        return json;
+    }
+
+    private List<String> pathsOf(final List<WorkspaceEntry> entries) {
+        return entries.stream().map(WorkspaceEntry::path).toList();
+    }
+
+    //---- Tests ----
+    @Test
+    void onPageNotified_deliversEachPageAsSoonAsItArrivesTest() {
+        listing.onPageNotified(page(0, "A.java", "B.java"));
+
+        assertThat(delivered).hasSize(1);
+        assertThat(pathsOf(delivered.get(0))).containsExactly("src/A.java", "src/B.java");
+        assertThat(listing.items()).isNotDone();
+    }
+
+    @Test
+    void items_whenAllPagesArrive_areSortedAsTheyWereNotifiedTest() {
+        listing.onPageNotified(page(1, "C.java"));
+        listing.onNotified(2);
+        listing.onPageNotified(page(0, "A.java", "B.java"));
+
+        assertThat(pathsOf(listing.items().join())).containsExactly("src/A.java", "src/B.java", "src/C.java");
+    }
+
+    @Test
+    void items_withoutPages_areEmptyTest() {
+        listing.onNotified(0);
+
+        assertThat(listing.items().join()).isEmpty();
+    }
+
+    @Test
+    void fail_completesTheItemsExceptionallyTest() {
+        listing.fail(new IllegalStateException("Directory removed"));
+
+        assertThatThrownBy(() -> listing.items().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void filesRead_areSortedAsTheyWerePicked_leavingOutTheFilesThatCouldNotBeReadTest() {
+        List<FileInfo> delivered = new ArrayList<>();
+        LfePagedEvents<FileInfo> reading = new LfePagedEvents<>(new LfeJsParameterHandler()::mapToFilesRead,
+                files -> delivered.addAll(files));
+
+        reading.onPageNotified(fileRead(2, "third.txt"));
+        reading.onPageNotified(fileFailed(1));
+        reading.onNotified(3);
+        reading.onPageNotified(fileRead(0, "first.txt"));
+
+        assertThat(reading.items().join()).map(FileInfo::name).containsExactly("first.txt", "third.txt");
+        assertThat(delivered).map(FileInfo::name).containsExactly("third.txt", "first.txt");
+    }
+
+}
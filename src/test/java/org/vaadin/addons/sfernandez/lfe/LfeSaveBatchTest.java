@@ -0,0 +1,218 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+import org.vaadin.addons.sfernandez.lfe.setup.LfeSetup;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LfeSaveBatchTest {
+
+    //---- Attributes ----
+    private UI sharedUi;
+    private OperationHandlerMock succeeding;
+    private OperationHandlerMock failing;
+
+    private LfeSaveBatch batch;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        sharedUi = Mockito.mock(UI.class);
+        succeeding = new OperationHandlerMock();
+        succeeding.mockSaveFileToSuccess("Content");
+        failing = new OperationHandlerMock();
+        failing.mockSaveFileToFail("Content");
+
+        batch = new LfeSaveBatch();
+    }
+
+    //---- Methods ----
+    private LiveFileEditor attachedEditor(final UiMock ui, final OperationHandlerMock operationHandler) {
+        LiveFileEditor editor = new LiveFileEditor(ui, operationHandler.get());
+        ui.attach();
+        return editor;
+    }
+
+    //---- Tests ----
+    @Test
+    void add_nullEditor_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> batch.add(null, "Content"));
+    }
+
+    @Test
+    void add_sameEditorTwice_keepsASingleSaveTest() {
+        LiveFileEditor editor = attachedEditor(new UiMock(sharedUi), succeeding);
+
+        batch.add(editor, "First").add(editor, "Second");
+
+        assertThat(batch.size()).isOne();
+    }
+
+    @Test
+    void requestsByUi_groupTheEditorsOfTheSameUiTest() {
+        LiveFileEditor first = attachedEditor(new UiMock(sharedUi), succeeding);
+        LiveFileEditor second = attachedEditor(new UiMock(sharedUi), succeeding);
+        LiveFileEditor other = attachedEditor(new UiMock(), succeeding);
+
+        batch.add(first, "Content").add(other, "Content").add(second, "Content");
+
+        assertThat(batch.requestsByUi()).hasSize(2);
+        assertThat(batch.requestsByUi().get(sharedUi)).containsExactly(first, second);
+    }
+
+    @Test
+    void batchedSave_asksToKeepTheDeltaBase_onlyWhenDeltasAreEnabledTest() {
+        LiveFileEditor editor = attachedEditor(new UiMock(sharedUi), succeeding);
+        assertThat(editor.prepareBatchedSave("Content").getBoolean("keepsBase")).isFalse();
+
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveDeltas(true);
+        editor.setup(setup);
+
+        assertThat(editor.prepareBatchedSave("Content").getBoolean("keepsBase")).isTrue();
+    }
+
+    @Test
+    void save_whenAnEditorIsNotWorking_throwsExceptionTest() {
+        UiMock ui = new UiMock(sharedUi);
+        LiveFileEditor editor = attachedEditor(ui, succeeding);
+        ui.detach();
+
+        batch.add(editor, "Content");
+
+        assertThrows(LfeException.class, () -> batch.save());
+    }
+
+    @Test
+    void save_whenALaterEditorIsNotWorking_sendsNothingTest() {
+        OperationHandlerMock first = new OperationHandlerMock();
+        first.mockSaveFileToSuccess("Content");
+        LiveFileEditor ready = attachedEditor(new UiMock(sharedUi), first);
+        UiMock otherUi = new UiMock();
+        LiveFileEditor stopped = attachedEditor(otherUi, succeeding);
+        otherUi.detach();
+
+        batch.add(ready, "Content").add(stopped, "Content");
+
+        assertThrows(LfeException.class, () -> batch.save());
+        Mockito.verify(first.get(), Mockito.never()).treatSaveFileJsRequest(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void save_waitsForTheSaveInFlightOfEachEditorTest() {
+        OperationHandlerMock operationHandler = new OperationHandlerMock();
+        CompletableFuture<LfeSaveFileEvent> inFlight = new CompletableFuture<>();
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenReturn(inFlight)
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent("Content")));
+        LiveFileEditor editor = attachedEditor(new UiMock(sharedUi), operationHandler);
+        editor.saveFile("Autosaved");
+
+        CompletableFuture<Map<LiveFileEditor, Optional<String>>> results = batch.add(editor, "Content").save();
+
+        Mockito.verify(operationHandler.get(), Mockito.times(1)).treatSaveFileJsRequest(Mockito.any(), Mockito.anyString());
+        inFlight.complete(new LfeSaveFileEvent("Autosaved"));
+
+        Mockito.verify(operationHandler.get(), Mockito.times(2)).treatSaveFileJsRequest(Mockito.any(), Mockito.anyString());
+        assertThat(results.join().get(editor)).contains("Content");
+    }
+
+    @Test
+    void save_returnsTheResultOfEachEditorTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LiveFileEditor saved = attachedEditor(new UiMock(sharedUi), succeeding);
+        LiveFileEditor notSaved = attachedEditor(new UiMock(sharedUi), failing);
+
+        Map<LiveFileEditor, Optional<String>> results = batch.add(saved, "Content")
+                .add(notSaved, "Content")
+                .save().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(results.keySet()).containsExactly(saved, notSaved);
+        assertThat(results.get(saved)).contains("Content");
+        assertThat(results.get(notSaved)).isEmpty();
+    }
+
+    @Test
+    void save_notifiesTheSaveOfEachEditorTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LiveFileEditor first = attachedEditor(new UiMock(sharedUi), succeeding);
+        LiveFileEditor second = attachedEditor(new UiMock(sharedUi), succeeding);
+        AtomicInteger notifiedSaves = new AtomicInteger(0);
+        first.observer().addSaveFileListener(event -> notifiedSaves.incrementAndGet());
+        second.observer().addSaveFileListener(event -> notifiedSaves.incrementAndGet());
+
+        batch.add(first, "Content").add(second, "Content").save().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(notifiedSaves).hasValue(2);
+        assertThat(first.state().lastSaveTime()).isPresent();
+    }
+
+    @Test
+    void save_admitsEachSaveThroughTheSaveLimiterTest() {
+        Mockito.when(sharedUi.access(Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Command>getArgument(0).execute();
+            return null;
+        });
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        limiter.setMaxInFlightSaves(1);
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        OperationHandlerMock unanswered = new OperationHandlerMock();
+        CompletableFuture<LfeSaveFileEvent> answer = new CompletableFuture<>();
+        Mockito.when(unanswered.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString())).thenReturn(answer);
+        LiveFileEditor admitted = attachedEditor(new UiMock(sharedUi), unanswered);
+        LiveFileEditor queued = attachedEditor(new UiMock(sharedUi), succeeding);
+        admitted.setup(setup);
+        queued.setup(setup);
+
+        CompletableFuture<Map<LiveFileEditor, Optional<String>>> results = batch.add(admitted, "Content")
+                .add(queued, "Content")
+                .save();
+
+        assertThat(limiter.statistics().inFlightSaves()).isOne();
+        assertThat(limiter.statistics().queuedExplicitSaves()).isOne();
+        Mockito.verify(succeeding.get(), Mockito.never()).treatSaveFileJsRequest(Mockito.any(), Mockito.any());
+
+        answer.complete(new LfeSaveFileEvent("Content"));
+
+        assertThat(results.join()).containsExactly(
+                Map.entry(admitted, Optional.of("Content")),
+                Map.entry(queued, Optional.of("Content")));
+        assertThat(limiter.statistics().inFlightSaves()).isZero();
+    }
+
+    @Test
+    void save_whenTheSaveOfAnEditorFails_returnsTheResultOfTheOthersTest() throws ExecutionException, InterruptedException, TimeoutException {
+        OperationHandlerMock broken = new OperationHandlerMock();
+        Mockito.when(broken.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Lost")));
+        LiveFileEditor saved = attachedEditor(new UiMock(sharedUi), succeeding);
+        LiveFileEditor notSaved = attachedEditor(new UiMock(sharedUi), broken);
+
+        Map<LiveFileEditor, Optional<String>> results = batch.add(saved, "Content")
+                .add(notSaved, "Content")
+                .save().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(results.get(saved)).contains("Content");
+        assertThat(results.get(notSaved)).isEmpty();
+    }
+
+    @Test
+    void save_emptyBatch_returnsNoResultsTest() throws ExecutionException, InterruptedException, TimeoutException {
+        assertThat(batch.save().get(50, TimeUnit.MILLISECONDS)).isEmpty();
+    }
+
+}
@@ -0,0 +1,260 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter.Priority.AUTOSAVE;
+import static org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter.Priority.EXPLICIT;
+
+class LfeSaveCoordinatorTest {
+
+    //---- Attributes ----
+    private List<String> contentsWritten;
+    private List<CompletableFuture<LfeSaveFileEvent>> writes;
+    private List<LfeSaveLimiter.Priority> priorities;
+
+    private LfeSaveCoordinator coordinator;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        contentsWritten = new ArrayList<>();
+        writes = new ArrayList<>();
+        priorities = new ArrayList<>();
+
+        coordinator = new LfeSaveCoordinator((content, priority) -> {
+            CompletableFuture<LfeSaveFileEvent> write = new CompletableFuture<>();
+            contentsWritten.add(content);
+            priorities.add(priority);
+            writes.add(write);
+            return write;
+        });
+    }
+
+    //---- Methods ----
+    private void completeWrite(final int index) {
+        writes.get(index).complete(new LfeSaveFileEvent(contentsWritten.get(index)));
+    }
+
+    //---- Tests ----
+    @Test
+    void save_withoutWriteInFlight_writesTheContentImmediatelyTest() {
+        coordinator.save("content", EXPLICIT);
+
+        assertThat(contentsWritten).containsExactly("content");
+        assertThat(coordinator.isWriting()).isTrue();
+    }
+
+    @Test
+    void save_withWriteInFlight_waitsUntilItCompletesTest() {
+        coordinator.save("first", EXPLICIT);
+        coordinator.save("second", EXPLICIT);
+
+        assertThat(contentsWritten).containsExactly("first");
+
+        completeWrite(0);
+
+        assertThat(contentsWritten).containsExactly("first", "second");
+    }
+
+    @Test
+    void savesRequestedDuringAWrite_collapseInASingleWriteOfTheLatestContentTest() {
+        coordinator.save("first", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> second = coordinator.save("second", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> third = coordinator.save("third", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> fourth = coordinator.save("fourth", EXPLICIT);
+
+        completeWrite(0);
+        completeWrite(1);
+
+        assertThat(contentsWritten).containsExactly("first", "fourth");
+        assertThat(second).isCompletedWithValue(writes.get(1).join());
+        assertThat(third).isCompletedWithValue(writes.get(1).join());
+        assertThat(fourth).isCompletedWithValue(writes.get(1).join());
+    }
+
+    @Test
+    void caller_receivesTheResultOfTheWriteThatCoveredItsContentTest() {
+        CompletableFuture<LfeSaveFileEvent> first = coordinator.save("first", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> second = coordinator.save("second", EXPLICIT);
+
+        completeWrite(0);
+
+        assertThat(first.join().data()).isEqualTo("first");
+        assertThat(second).isNotDone();
+
+        completeWrite(1);
+
+        assertThat(second.join().data()).isEqualTo("second");
+    }
+
+    @Test
+    void failedWrite_isReceivedByTheCallersItCoveredTest() {
+        coordinator.save("first", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> second = coordinator.save("second", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> third = coordinator.save("third", EXPLICIT);
+        LfeSaveFileEvent failure = new LfeSaveFileEvent("second", new LfeError(LfeError.Type.Saving.NOT_FOUND, "Error"));
+
+        completeWrite(0);
+        writes.get(1).complete(failure);
+
+        assertThat(second).isCompletedWithValue(failure);
+        assertThat(third).isCompletedWithValue(failure);
+    }
+
+    @Test
+    void pendingWrite_isLaunchedEvenIfTheWriteInFlightCompletesExceptionallyTest() {
+        coordinator.save("first", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> second = coordinator.save("second", EXPLICIT);
+
+        writes.get(0).completeExceptionally(new IllegalStateException());
+        completeWrite(1);
+
+        assertThat(contentsWritten).containsExactly("first", "second");
+        assertThat(second.join().data()).isEqualTo("second");
+    }
+
+    @Test
+    void pendingWrite_thatCannotBeLaunched_completesItsCallersExceptionallyTest() {
+        LfeSaveCoordinator failingCoordinator = new LfeSaveCoordinator((content, priority) -> {
+            if(!writes.isEmpty())
+                throw new LfeException("Write can't be launched");
+
+            CompletableFuture<LfeSaveFileEvent> write = new CompletableFuture<>();
+            contentsWritten.add(content);
+            writes.add(write);
+            return write;
+        });
+        failingCoordinator.save("first", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> second = failingCoordinator.save("second", EXPLICIT);
+
+        completeWrite(0);
+
+        assertThat(second).isCompletedExceptionally();
+        assertThat(failingCoordinator.isWriting()).isFalse();
+    }
+
+    @Test
+    void afterAllWritesComplete_nextSaveIsWrittenImmediatelyTest() {
+        coordinator.save("first", EXPLICIT);
+        coordinator.save("second", EXPLICIT);
+        completeWrite(0);
+        completeWrite(1);
+
+        coordinator.save("third", EXPLICIT);
+
+        assertThat(contentsWritten).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void pendingWrite_hasTheHighestPriorityOfTheSavesCollapsedInItTest() {
+        coordinator.save("first", AUTOSAVE);
+        coordinator.save("second", AUTOSAVE);
+        coordinator.save("third", EXPLICIT);
+        coordinator.save("fourth", AUTOSAVE);
+
+        completeWrite(0);
+
+        assertThat(priorities).containsExactly(AUTOSAVE, EXPLICIT);
+    }
+
+    @Test
+    void pendingWrite_ofAutosavesOnly_keepsTheAutosavePriorityTest() {
+        coordinator.save("first", EXPLICIT);
+        coordinator.save("second", AUTOSAVE);
+
+        completeWrite(0);
+
+        assertThat(priorities).containsExactly(EXPLICIT, AUTOSAVE);
+    }
+
+    @Test
+    void alreadyCompletedWrites_doNotLeaveAWriteInFlightTest() {
+        LfeSaveCoordinator immediateCoordinator = new LfeSaveCoordinator((content, priority) -> {
+            contentsWritten.add(content);
+            return CompletableFuture.completedFuture(new LfeSaveFileEvent(content));
+        });
+
+        immediateCoordinator.save("first", EXPLICIT);
+        immediateCoordinator.save("second", EXPLICIT);
+
+        assertThat(contentsWritten).containsExactly("first", "second");
+        assertThat(immediateCoordinator.isWriting()).isFalse();
+    }
+
+    @Test
+    void write_withSaveInFlight_waitsUntilItCompletesTest() {
+        List<String> launched = new ArrayList<>();
+        coordinator.save("first", EXPLICIT);
+
+        CompletableFuture<String> range = coordinator.write(() -> {
+            launched.add("range");
+            return CompletableFuture.completedFuture("range");
+        });
+
+        assertThat(launched).isEmpty();
+
+        completeWrite(0);
+
+        assertThat(launched).containsExactly("range");
+        assertThat(range.join()).isEqualTo("range");
+    }
+
+    @Test
+    void savesRequestedAfterAQueuedWrite_areWrittenAfterItTest() {
+        List<String> launched = new ArrayList<>();
+        coordinator.save("first", EXPLICIT);
+        coordinator.save("second", EXPLICIT);
+        coordinator.write(() -> {
+            launched.add("range");
+            contentsWritten.add("range");
+            return new CompletableFuture<>();
+        });
+        coordinator.save("third", EXPLICIT);
+
+        completeWrite(0);
+        completeWrite(1);
+
+        assertThat(launched).containsExactly("range");
+        assertThat(contentsWritten).containsExactly("first", "second", "range");
+        assertThat(coordinator.isWriting()).isTrue();
+    }
+
+    @Test
+    void save_withWriteInFlight_waitsUntilItCompletesToBeWrittenTest() {
+        CompletableFuture<String> range = new CompletableFuture<>();
+        coordinator.write(() -> range);
+
+        coordinator.save("first", EXPLICIT);
+        assertThat(contentsWritten).isEmpty();
+
+        range.complete("range");
+
+        assertThat(contentsWritten).containsExactly("first");
+    }
+
+    @Test
+    void abort_failsTheWritesAndLetsTheNextOneLaunchTest() {
+        CompletableFuture<LfeSaveFileEvent> inFlight = coordinator.save("first", EXPLICIT);
+        CompletableFuture<LfeSaveFileEvent> queued = coordinator.save("second", EXPLICIT);
+        CompletableFuture<String> exclusive = coordinator.write(CompletableFuture::new);
+
+        coordinator.abort(new IllegalStateException("Stopped"));
+        coordinator.save("third", EXPLICIT);
+
+        assertThat(inFlight).isCompletedExceptionally();
+        assertThat(queued).isCompletedExceptionally();
+        assertThat(exclusive).isCompletedExceptionally();
+        assertThat(contentsWritten).containsExactly("first", "third");
+        assertThat(coordinator.isWriting()).isTrue();
+    }
+
+}
@@ -0,0 +1,223 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter.Priority.AUTOSAVE;
+import static org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter.Priority.EXPLICIT;
+
+class LfeSaveLimiterTest {
+
+    //---- Attributes ----
+    private LfeSaveLimiter limiter;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        limiter = new LfeSaveLimiter();
+    }
+
+    //---- Methods ----
+    private LfeSaveLimiter.Permit permitOf(final CompletableFuture<Optional<LfeSaveLimiter.Permit>> admission) {
+        return admission.join().orElseThrow();
+    }
+
+    //---- Tests ----
+    @Test
+    void shared_returnsAlwaysTheSameLimiterTest() {
+        assertThat(LfeSaveLimiter.shared()).isSameAs(LfeSaveLimiter.shared());
+    }
+
+    @Test
+    void limiter_doesNotLimitAnything_byDefaultTest() {
+        List<CompletableFuture<Optional<LfeSaveLimiter.Permit>>> admissions = new ArrayList<>();
+
+        for(int i = 0; i < 1_000; ++i)
+            admissions.add(limiter.acquire(i % 2 == 0 ? EXPLICIT : AUTOSAVE, Integer.MAX_VALUE));
+
+        assertThat(admissions).allMatch(admission -> admission.isDone() && admission.join().isPresent());
+        assertThat(limiter.statistics().inFlightSaves()).isEqualTo(1_000);
+    }
+
+    @Test
+    void setLimits_withInvalidValues_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> limiter.setMaxInFlightSaves(0));
+        assertThrows(LfeException.class, () -> limiter.setMaxInFlightBytes(0));
+        assertThrows(LfeException.class, () -> limiter.setMaxQueuedAutosaves(-1));
+    }
+
+    @Test
+    void save_isQueued_whenMaxInFlightSavesIsReachedTest() {
+        limiter.setMaxInFlightSaves(2);
+        limiter.acquire(EXPLICIT, 1);
+        limiter.acquire(EXPLICIT, 1);
+
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> third = limiter.acquire(EXPLICIT, 1);
+
+        assertThat(third).isNotDone();
+        assertThat(limiter.statistics().queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void save_isQueued_whenMaxInFlightBytesIsReachedTest() {
+        limiter.setMaxInFlightBytes(100);
+        limiter.acquire(EXPLICIT, 60);
+
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> second = limiter.acquire(EXPLICIT, 60);
+
+        assertThat(second).isNotDone();
+        assertThat(limiter.statistics().inFlightBytes()).isEqualTo(60);
+    }
+
+    @Test
+    void saveBiggerThanMaxInFlightBytes_isAdmitted_whenNothingElseIsInFlightTest() {
+        limiter.setMaxInFlightBytes(100);
+
+        assertThat(limiter.acquire(EXPLICIT, 1_000)).isCompleted();
+    }
+
+    @Test
+    void afterReleasingAPermit_queuedSaveIsAdmittedTest() {
+        limiter.setMaxInFlightSaves(1);
+        LfeSaveLimiter.Permit first = permitOf(limiter.acquire(EXPLICIT, 1));
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> second = limiter.acquire(EXPLICIT, 1);
+
+        first.release();
+
+        assertThat(second.join()).isPresent();
+        assertThat(limiter.statistics().queueDepth()).isZero();
+    }
+
+    @Test
+    void setPermitLease_withInvalidValues_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> limiter.setPermitLease(null));
+        assertThrows(LfeException.class, () -> limiter.setPermitLease(Duration.ZERO));
+        assertThrows(LfeException.class, () -> limiter.setPermitLease(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void permit_isReleased_whenItsLeaseExpiresTest() throws Exception {
+        limiter.setPermitLease(Duration.ofMillis(20));
+        limiter.setMaxInFlightSaves(1);
+        limiter.acquire(EXPLICIT, 10);
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> queued = limiter.acquire(EXPLICIT, 5);
+
+        assertThat(queued.get(1, TimeUnit.SECONDS)).isPresent();
+    }
+
+    @Test
+    void releasingPermits_cancelsTheirLeasesTest() {
+        int scheduledBefore = LfeSaveLimiter.scheduledLeases();
+
+        for(int i = 0; i < 1_000; ++i)
+            permitOf(limiter.acquire(EXPLICIT, 10)).release();
+
+        assertThat(LfeSaveLimiter.scheduledLeases()).isLessThanOrEqualTo(scheduledBefore);
+    }
+
+    @Test
+    void releasingAPermitTwice_releasesItOnlyOnceTest() {
+        LfeSaveLimiter.Permit permit = permitOf(limiter.acquire(EXPLICIT, 10));
+        limiter.acquire(EXPLICIT, 5);
+
+        permit.release();
+        permit.release();
+
+        assertThat(limiter.statistics().inFlightSaves()).isEqualTo(1);
+        assertThat(limiter.statistics().inFlightBytes()).isEqualTo(5);
+    }
+
+    @Test
+    void queuedExplicitSaves_areAdmittedBeforeQueuedAutosavesTest() {
+        limiter.setMaxInFlightSaves(1);
+        LfeSaveLimiter.Permit first = permitOf(limiter.acquire(EXPLICIT, 1));
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> autosave = limiter.acquire(AUTOSAVE, 1);
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> explicit = limiter.acquire(EXPLICIT, 1);
+
+        first.release();
+
+        assertThat(explicit).isCompleted();
+        assertThat(autosave).isNotDone();
+
+        permitOf(explicit).release();
+
+        assertThat(autosave).isCompleted();
+    }
+
+    @Test
+    void autosave_isNotAdmittedBeforeQueuedSaves_evenIfItFitsTest() {
+        limiter.setMaxInFlightBytes(100);
+        limiter.acquire(EXPLICIT, 60);
+        limiter.acquire(EXPLICIT, 60);
+
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> autosave = limiter.acquire(AUTOSAVE, 10);
+
+        assertThat(autosave).isNotDone();
+    }
+
+    @Test
+    void autosave_isShed_whenAutosaveQueueIsFullTest() {
+        limiter.setMaxInFlightSaves(1);
+        limiter.setMaxQueuedAutosaves(1);
+        limiter.acquire(EXPLICIT, 1);
+        limiter.acquire(AUTOSAVE, 1);
+
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> shed = limiter.acquire(AUTOSAVE, 1);
+
+        assertThat(shed.join()).isEmpty();
+        assertThat(limiter.statistics().shedAutosaves()).isEqualTo(1);
+        assertThat(limiter.statistics().queuedAutosaves()).isEqualTo(1);
+    }
+
+    @Test
+    void explicitSave_isNeverShedTest() {
+        limiter.setMaxInFlightSaves(1);
+        limiter.setMaxQueuedAutosaves(0);
+        limiter.acquire(EXPLICIT, 1);
+
+        for(int i = 0; i < 100; ++i)
+            assertThat(limiter.acquire(EXPLICIT, 1)).isNotDone();
+
+        assertThat(limiter.statistics().queuedExplicitSaves()).isEqualTo(100);
+        assertThat(limiter.statistics().shedAutosaves()).isZero();
+    }
+
+    @Test
+    void raisingTheLimits_admitsTheQueuedSavesTest() {
+        limiter.setMaxInFlightSaves(1);
+        limiter.acquire(EXPLICIT, 1);
+        CompletableFuture<Optional<LfeSaveLimiter.Permit>> second = limiter.acquire(AUTOSAVE, 1);
+
+        limiter.setMaxInFlightSaves(2);
+
+        assertThat(second).isCompleted();
+    }
+
+    @Test
+    void statistics_showTheQueueDepthTest() {
+        limiter.setMaxInFlightSaves(1);
+        limiter.acquire(EXPLICIT, 10);
+        limiter.acquire(EXPLICIT, 1);
+        limiter.acquire(AUTOSAVE, 1);
+        limiter.acquire(AUTOSAVE, 1);
+
+        LfeSaveLimiterStatistics statistics = limiter.statistics();
+
+        assertThat(statistics.inFlightSaves()).isEqualTo(1);
+        assertThat(statistics.inFlightBytes()).isEqualTo(10);
+        assertThat(statistics.queuedExplicitSaves()).isEqualTo(1);
+        assertThat(statistics.queuedAutosaves()).isEqualTo(2);
+        assertThat(statistics.queueDepth()).isEqualTo(3);
+    }
+
+}
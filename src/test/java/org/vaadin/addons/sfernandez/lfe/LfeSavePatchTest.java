@@ -0,0 +1,77 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LfeSavePatchTest {
+
+    //---- Tests ----
+    @ParameterizedTest
+    @CsvSource(value = {
+            "'Hello world', 'Hello world!'",
+            "'Hello world', 'Hello, world'",
+            "'Hello world', 'ello world'",
+            "'Hello world', 'Hello'",
+            "'Hello world', ''",
+            "'', 'Hello world'",
+            "'aaaa', 'aaaaaa'",
+            "'abcabc', 'abc'",
+            "'Hello world', 'Bye world'",
+            "'Hello world', 'Hello world'"
+    })
+    void appliedPatch_transformsTheBaseIntoTheContentTest(String base, String content) {
+        LfeSavePatch patch = LfeSavePatch.between(base, content);
+
+        assertThat(patch.applyTo(base)).isEqualTo(content);
+    }
+
+    @Test
+    void patch_ofASingleCharChange_onlyContainsThatCharTest() {
+        String base = "x".repeat(5_000_000);
+        String content = base.substring(0, 2_500_000) + "y" + base.substring(2_500_001);
+
+        LfeSavePatch patch = LfeSavePatch.between(base, content);
+
+        assertThat(patch.insert()).isEqualTo("y");
+        assertThat(patch.end() - patch.start()).isOne();
+        assertThat(patch.applyTo(base)).isEqualTo(content);
+    }
+
+    @Test
+    void patch_ofEqualContents_isEmptyTest() {
+        LfeSavePatch patch = LfeSavePatch.between("Content", "Content");
+
+        assertThat(patch.insert()).isEmpty();
+        assertThat(patch.start()).isEqualTo(patch.end());
+    }
+
+    @Test
+    void patch_ofSeveralDistantEdits_coversAllOfThemTest() {
+        String base = "Hello beautiful world";
+        String content = "Jello beautiful word";
+
+        LfeSavePatch patch = LfeSavePatch.between(base, content);
+
+        assertThat(patch.applyTo(base)).isEqualTo(content);
+        assertThat(patch.start()).isZero();
+    }
+
+    @Test
+    void worthSending_withoutBase_isEmptyTest() {
+        assertThat(LfeSavePatch.worthSending(null, "Content")).isEmpty();
+    }
+
+    @Test
+    void worthSending_aPatchBiggerThanHalfTheContent_isEmptyTest() {
+        assertThat(LfeSavePatch.worthSending("Hello world", "Bye people")).isEmpty();
+    }
+
+    @Test
+    void worthSending_aSmallPatch_isPresentTest() {
+        assertThat(LfeSavePatch.worthSending("Hello world", "Hello world!")).isPresent();
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.AbstractStreamResource;
+import com.vaadin.flow.server.StreamRegistration;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.StreamResourceRegistry;
+import com.vaadin.flow.server.VaadinSession;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LfeSaveStreamTest {
+
+    //---- Methods ----
+    private byte[] servedBy(final StreamResource resource) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resource.getWriter().accept(out, null);
+        return out.toByteArray();
+    }
+
+    //---- Tests ----
+    @Test
+    void resource_servesTheContentEncodedAsUtf8Test() throws IOException {
+        String content = "Content with ñ, € and 😀";
+
+        byte[] served = servedBy(LfeSaveStream.resourceOf(content, null));
+
+        assertThat(served).isEqualTo(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void resource_ofNullContent_servesNothingTest() throws IOException {
+        assertThat(servedBy(LfeSaveStream.resourceOf((String) null, null))).isEmpty();
+    }
+
+    @Test
+    void resource_servesBinaryContentAsItIsTest() throws IOException {
+        byte[] content = {0, (byte) 0x80, (byte) 0xFF, 10, 13};
+
+        byte[] served = servedBy(LfeSaveStream.resourceOf(content, null));
+
+        assertThat(served).isEqualTo(content);
+    }
+
+    @Test
+    void resource_withCompression_servesTheContentGzippedTest() throws IOException {
+        String content = "Repeated content. ".repeat(100);
+        LfeCompression compression = new LfeCompression();
+
+        byte[] served = servedBy(LfeSaveStream.resourceOf(content, compression));
+
+        try(InputStream decompressed = new GZIPInputStream(new ByteArrayInputStream(served))) {
+            assertThat(new String(decompressed.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+        }
+        assertThat(served.length).isLessThan(content.length());
+        assertThat(compression.statistics().compressedSaves()).isOne();
+    }
+
+    @Test
+    void resource_servesTheStreamAndCountsItsBytesTest() throws IOException {
+        byte[] content = new byte[100_000];
+        Arrays.fill(content, (byte) 7);
+        AtomicLong servedBytes = new AtomicLong();
+
+        byte[] served = servedBy(LfeSaveStream.resourceOf(new ByteArrayInputStream(content), servedBytes, null));
+
+        assertThat(served).isEqualTo(content);
+        assertThat(servedBytes).hasValue(100_000L);
+    }
+
+    @Test
+    void resource_isNotCachedTest() {
+        StreamResource resource = LfeSaveStream.resourceOf("Content", null);
+
+        assertThat(resource.getCacheTime()).isZero();
+        assertThat(resource.getName()).isEqualTo(LfeSaveStream.RESOURCE_NAME);
+    }
+
+    @Test
+    void register_servesTheContentInTheSessionOfTheUiTest() throws IOException {
+        UI ui = Mockito.mock(UI.class);
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        StreamResourceRegistry registry = Mockito.mock(StreamResourceRegistry.class);
+        StreamRegistration registration = Mockito.mock(StreamRegistration.class);
+        Mockito.when(ui.getSession()).thenReturn(session);
+        Mockito.when(session.getResourceRegistry()).thenReturn(registry);
+        Mockito.when(registry.registerResource(Mockito.any())).thenReturn(registration);
+        Mockito.when(registration.getResourceUri()).thenReturn(URI.create("VAADIN/dynamic/resource/0/id/lfe-save"));
+
+        LfeSaveStream stream = LfeSaveStream.register(ui, "Content", null);
+        stream.unregister();
+
+        Mockito.verify(registry).registerResource(Mockito.<AbstractStreamResource>argThat(resource ->
+                resource instanceof StreamResource streamResource
+                        && servedContentIs(streamResource, "Content")));
+        Mockito.verify(registration).unregister();
+        assertThat(stream.url()).isEqualTo("VAADIN/dynamic/resource/0/id/lfe-save");
+    }
+
+    private boolean servedContentIs(final StreamResource resource, final String content) {
+        try {
+            return new String(servedBy(resource), StandardCharsets.UTF_8).equals(content);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+}
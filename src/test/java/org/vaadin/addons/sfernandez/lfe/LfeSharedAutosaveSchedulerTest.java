@@ -0,0 +1,156 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LfeSharedAutosaveSchedulerTest {
+
+    //---- Constants and Definitions ----
+    private static final int NUM_OF_WORKERS = 2;
+
+    //---- Attributes ----
+    private LfeSharedAutosaveScheduler scheduler;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        scheduler = new LfeSharedAutosaveScheduler(NUM_OF_WORKERS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        scheduler.shutdown();
+    }
+
+    //---- Methods ----
+    private long numOfSchedulerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getName)
+                .filter(name -> name.startsWith("lfe-autosave-"))
+                .count();
+    }
+
+    private void assertNoTickIsScheduledEventually() throws InterruptedException {
+        for(int i = 0; i < 50 && scheduler.numOfScheduledTicks() > 0; ++i)
+            Thread.sleep(10L);
+
+        assertThat(scheduler.numOfScheduledTicks()).isZero();
+    }
+
+    //---- Tests ----
+    @Test
+    void shared_returnsAlwaysTheSameSchedulerTest() {
+        assertThat(LfeAutosaveScheduler.shared()).isSameAs(LfeAutosaveScheduler.shared());
+    }
+
+    @Test
+    void scheduledTick_isExecutedPeriodicallyTest() throws InterruptedException {
+        CountDownLatch executions = new CountDownLatch(5);
+
+        scheduler.scheduleAtFixedRate(executions::countDown, Duration.ZERO, Duration.ofMillis(5L));
+
+        assertThat(executions.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void cancelledTick_isNotExecutedAnymoreTest() throws InterruptedException {
+        AtomicInteger executions = new AtomicInteger(0);
+        ScheduledFuture<?> scheduled = scheduler.scheduleAtFixedRate(executions::incrementAndGet, Duration.ZERO, Duration.ofMillis(5L));
+        Thread.sleep(20L);
+
+        scheduled.cancel(false);
+        int executionsAfterCancel = executions.get();
+        Thread.sleep(30L);
+
+        assertThat(executions.get()).isLessThanOrEqualTo(executionsAfterCancel + 1);
+        assertNoTickIsScheduledEventually();
+    }
+
+    @Test
+    void tick_isNotExecutedConcurrentlyWithItselfTest() throws InterruptedException {
+        AtomicBoolean isExecuting = new AtomicBoolean(false);
+        AtomicBoolean overlapped = new AtomicBoolean(false);
+        CountDownLatch executions = new CountDownLatch(3);
+
+        scheduler.scheduleAtFixedRate(() -> {
+            if(!isExecuting.compareAndSet(false, true))
+                overlapped.set(true);
+            try {
+                Thread.sleep(15L);
+            } catch (InterruptedException ignored) {}
+            isExecuting.set(false);
+            executions.countDown();
+        }, Duration.ZERO, Duration.ofMillis(1L));
+
+        assertThat(executions.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(overlapped).isFalse();
+    }
+
+    @Test
+    void slowTick_doesNotDelayTheOtherTicksTest() throws InterruptedException {
+        CountDownLatch blockSlowTick = new CountDownLatch(1);
+        CountDownLatch fastExecutions = new CountDownLatch(5);
+
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                blockSlowTick.await();
+            } catch (InterruptedException ignored) {}
+        }, Duration.ZERO, Duration.ofMillis(1L));
+        scheduler.scheduleAtFixedRate(fastExecutions::countDown, Duration.ZERO, Duration.ofMillis(5L));
+
+        try {
+            assertThat(fastExecutions.await(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            blockSlowTick.countDown();
+        }
+    }
+
+    @Test
+    void tenThousandTicks_areAllExecutedByABoundedNumberOfThreadsTest() throws InterruptedException {
+        int numOfEditors = 10_000;
+        long threadsBefore = numOfSchedulerThreads();
+        CountDownLatch allTicksExecuted = new CountDownLatch(numOfEditors);
+        List<ScheduledFuture<?>> scheduledTicks = new ArrayList<>(numOfEditors);
+
+        for(int i = 0; i < numOfEditors; ++i) {
+            AtomicBoolean executed = new AtomicBoolean(false);
+            scheduledTicks.add(scheduler.scheduleAtFixedRate(() -> {
+                if(executed.compareAndSet(false, true))
+                    allTicksExecuted.countDown();
+            }, Duration.ZERO, Duration.ofMillis(100L)));
+        }
+
+        assertThat(allTicksExecuted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(numOfSchedulerThreads() - threadsBefore).isLessThanOrEqualTo(scheduler.maxNumOfThreads());
+        assertThat(scheduler.maxNumOfThreads()).isEqualTo(1 + NUM_OF_WORKERS);
+
+        scheduledTicks.forEach(scheduled -> scheduled.cancel(false));
+        assertNoTickIsScheduledEventually();
+    }
+
+    @Test
+    void shutdown_releasesTheThreadsOfTheSchedulerTest() throws InterruptedException {
+        long threadsBefore = numOfSchedulerThreads();
+        CountDownLatch executions = new CountDownLatch(NUM_OF_WORKERS);
+        for(int i = 0; i < NUM_OF_WORKERS; ++i)
+            scheduler.schedule(executions::countDown, Duration.ZERO);
+        assertThat(executions.await(1, TimeUnit.SECONDS)).isTrue();
+
+        scheduler.shutdown();
+        for(int i = 0; i < 50 && numOfSchedulerThreads() > threadsBefore; ++i)
+            Thread.sleep(10L);
+
+        assertThat(numOfSchedulerThreads()).isLessThanOrEqualTo(threadsBefore);
+    }
+
+}
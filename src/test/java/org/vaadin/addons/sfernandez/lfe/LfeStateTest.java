@@ -0,0 +1,61 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LfeStateTest {
+
+    //---- Tests ----
+    @Test
+    void lastSaveFingerprint_ofTheContent_isTheFingerprintOfTheContentTest() {
+        LfeState state = new LfeState().withLastSaveFingerprintOf("Saved content");
+
+        assertThat(state.lastSaveFingerprint()).contains(LfeFingerprint.of("Saved content"));
+    }
+
+    @Test
+    void lastSaveFingerprint_ofNullContent_isEmptyTest() {
+        LfeState state = new LfeState().withLastSaveFingerprintOf(null);
+
+        assertThat(state.lastSaveFingerprint()).isEmpty();
+    }
+
+    @Test
+    void states_withTheFingerprintOfTheSameContent_areEqualTest() {
+        LfeState fingerprinted = new LfeState().withLastSaveFingerprint(LfeFingerprint.of("Saved content"));
+        LfeState lazilyFingerprinted = new LfeState().withLastSaveFingerprintOf(new StringBuilder("Saved content"));
+
+        assertThat(lazilyFingerprinted).isEqualTo(fingerprinted);
+        assertThat(lazilyFingerprinted.withLastSaveFingerprintOf("Other content")).isNotEqualTo(fingerprinted);
+    }
+
+    @Test
+    void lastSaveOf_notRetainingTheContent_doesNotKeepItReachableTest() throws InterruptedException {
+        String content = new String("Saved content".repeat(1_000));
+        LfeFingerprint expected = LfeFingerprint.of(content);
+        WeakReference<String> reference = new WeakReference<>(content);
+
+        LfeState state = new LfeState().withLastSaveOf(content, false);
+        content = null;
+        for(int i = 0; i < 50 && reference.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(reference.get()).isNull();
+        assertThat(state.lastSaveData()).isEmpty();
+        assertThat(state.lastSaveFingerprint()).contains(expected);
+    }
+
+    @Test
+    void lastSaveOf_retainingTheContent_keepsItTest() {
+        LfeState state = new LfeState().withLastSaveOf("Saved content", true);
+
+        assertThat(state.lastSaveData()).contains("Saved content");
+        assertThat(state.lastSaveFingerprint()).contains(LfeFingerprint.of("Saved content"));
+    }
+
+}
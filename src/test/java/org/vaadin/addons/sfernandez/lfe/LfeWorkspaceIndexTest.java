@@ -0,0 +1,119 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceIndexChanges;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceIndexEntry;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+
+class LfeWorkspaceIndexTest {
+
+    //---- Attributes ----
+    private LiveFileEditor editor;
+    private LfeWorkspaceIndex index;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        editor = Mockito.mock(LiveFileEditor.class);
+        index = new LfeWorkspaceIndex(editor, "workspace-id");
+    }
+
+    //---- Methods ----
+    private WorkspaceIndexEntry entry(final String path, final long size) {
+        return new WorkspaceIndexEntry(path, size, Instant.ofEpochMilli(size), "fingerprint-" + size);
+    }
+
+    private void mockRefreshTo(final CompletableFuture<List<WorkspaceIndexChanges>> pages) {
+        Mockito.when(editor.refreshWorkspaceIndex(eq("workspace-id"), anyInt())).thenReturn(pages);
+    }
+
+    //---- Tests ----
+    @Test
+    void refresh_mergesThePagesInTheChangesTest() {
+        mockRefreshTo(CompletableFuture.completedFuture(List.of(
+                new WorkspaceIndexChanges(List.of(entry("a.txt", 1)), List.of(), Map.of()),
+                new WorkspaceIndexChanges(List.of(entry("src/b.txt", 2)), List.of("old.txt"), Map.of())
+        )));
+
+        WorkspaceIndexChanges changes = index.refresh().join();
+
+        assertThat(changes.updated()).containsExactly(entry("a.txt", 1), entry("src/b.txt", 2));
+        assertThat(changes.removed()).containsExactly("old.txt");
+    }
+
+    @Test
+    void refresh_appliesTheChangesToTheIndexTest() {
+        index.apply(new WorkspaceIndexChanges(List.of(entry("a.txt", 1), entry("old.txt", 3)), List.of(), Map.of()));
+        mockRefreshTo(CompletableFuture.completedFuture(List.of(
+                new WorkspaceIndexChanges(List.of(entry("a.txt", 10)), List.of("old.txt"), Map.of())
+        )));
+
+        index.refresh().join();
+
+        assertThat(index.size()).isOne();
+        assertThat(index.get("a.txt")).contains(entry("a.txt", 10));
+        assertThat(index.get("old.txt")).isEmpty();
+    }
+
+    @Test
+    void refresh_withFailedFiles_keepsTheirEntriesTest() {
+        LfeError error = new LfeError(LfeError.Type.Opening.NOT_FOUND, "Gone while reading");
+        index.apply(new WorkspaceIndexChanges(List.of(entry("a.txt", 1)), List.of(), Map.of()));
+        mockRefreshTo(CompletableFuture.completedFuture(List.of(
+                new WorkspaceIndexChanges(List.of(entry("b.txt", 2)), List.of(), Map.of()),
+                new WorkspaceIndexChanges(List.of(), List.of(), Map.of("a.txt", error))
+        )));
+
+        WorkspaceIndexChanges changes = index.refresh().join();
+
+        assertThat(changes.failed()).containsExactly(Map.entry("a.txt", error));
+        assertThat(index.get("a.txt")).contains(entry("a.txt", 1));
+        assertThat(index.get("b.txt")).contains(entry("b.txt", 2));
+    }
+
+    @Test
+    void refresh_withoutChanges_keepsTheIndexTest() {
+        index.apply(new WorkspaceIndexChanges(List.of(entry("a.txt", 1)), List.of(), Map.of()));
+        mockRefreshTo(CompletableFuture.completedFuture(List.of()));
+
+        WorkspaceIndexChanges changes = index.refresh().join();
+
+        assertThat(changes.isEmpty()).isTrue();
+        assertThat(index.entries()).containsOnlyKeys("a.txt");
+    }
+
+    @Test
+    void refresh_whileAnotherIsInProgress_returnsItTest() {
+        mockRefreshTo(new CompletableFuture<>());
+
+        CompletableFuture<WorkspaceIndexChanges> first = index.refresh();
+        CompletableFuture<WorkspaceIndexChanges> second = index.refresh();
+
+        assertThat(second).isSameAs(first);
+        Mockito.verify(editor, Mockito.times(1)).refreshWorkspaceIndex(any(), anyInt());
+    }
+
+    @Test
+    void refresh_afterAFailedOne_startsAnotherTest() {
+        mockRefreshTo(CompletableFuture.failedFuture(new IllegalStateException("Lost")));
+        index.refresh();
+
+        mockRefreshTo(CompletableFuture.completedFuture(List.of()));
+        WorkspaceIndexChanges changes = index.refresh().join();
+
+        assertThat(changes.isEmpty()).isTrue();
+    }
+
+}
@@ -0,0 +1,147 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.parameters.WorkspaceEntry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+
+class LfeWorkspaceTest {
+
+    //---- Attributes ----
+    private LiveFileEditor editor;
+    private LfeWorkspace workspace;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        editor = Mockito.mock(LiveFileEditor.class);
+        Mockito.when(editor.listWorkspaceDirectory(any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(entriesOf(invocation.getArgument(1))));
+
+        workspace = new LfeWorkspace(editor, "workspace-id", "project");
+    }
+
+    //---- Methods ----
+    private List<WorkspaceEntry> entriesOf(final String directory) {
+        String path = directory.isEmpty() ? "file.txt" : directory + "/file.txt";
+        return List.of(new WorkspaceEntry(path, "file.txt", WorkspaceEntry.Kind.FILE));
+    }
+
+    //---- Tests ----
+    @Test
+    void list_returnsTheEntriesOfTheDirectoryTest() {
+        List<WorkspaceEntry> entries = workspace.list("src").join();
+
+        assertThat(entries).isEqualTo(entriesOf("src"));
+    }
+
+    @Test
+    void list_normalizesThePathTest() {
+        workspace.list("/src/main/").join();
+
+        Mockito.verify(editor).listWorkspaceDirectory(eq("workspace-id"), eq("src/main"), anyInt(), any());
+    }
+
+    @Test
+    void list_nullPath_listsTheRootTest() {
+        workspace.list(null).join();
+
+        Mockito.verify(editor).listWorkspaceDirectory(eq("workspace-id"), eq(""), anyInt(), any());
+    }
+
+    @Test
+    void list_twice_asksTheBrowserOnlyOnceTest() {
+        workspace.list("src").join();
+        List<WorkspaceEntry> entries = workspace.list("src").join();
+
+        assertThat(entries).isEqualTo(entriesOf("src"));
+        Mockito.verify(editor, Mockito.times(1)).listWorkspaceDirectory(eq("workspace-id"), eq("src"), anyInt(), any());
+    }
+
+    @Test
+    void cached_beforeListing_isEmptyTest() {
+        assertThat(workspace.cached("src")).isEmpty();
+    }
+
+    @Test
+    void cached_afterListing_containsTheEntriesTest() {
+        workspace.list("src").join();
+
+        assertThat(workspace.cached("src")).contains(entriesOf("src"));
+    }
+
+    @Test
+    void forget_dropsTheDirectoryAndItsSubdirectoriesTest() {
+        workspace.list("src").join();
+        workspace.list("src/main").join();
+        workspace.list("srcs").join();
+
+        workspace.forget("src");
+
+        assertThat(workspace.cached("src")).isEmpty();
+        assertThat(workspace.cached("src/main")).isEmpty();
+        assertThat(workspace.cached("srcs")).isPresent();
+    }
+
+    @Test
+    void forget_root_dropsEverythingTest() {
+        workspace.list("").join();
+        workspace.list("src").join();
+
+        workspace.forget("");
+
+        assertThat(workspace.cached("")).isEmpty();
+        assertThat(workspace.cached("src")).isEmpty();
+    }
+
+    @Test
+    void openFile_opensItInTheEditorTest() {
+        workspace.openFile("/src/file.txt");
+
+        Mockito.verify(editor).openWorkspaceFile("workspace-id", "src/file.txt");
+    }
+
+    @Test
+    void close_forgetsTheWorkspaceInTheEditorTest() {
+        workspace.list("src").join();
+
+        workspace.close();
+
+        assertThat(workspace.isClosed()).isTrue();
+        assertThat(workspace.cached("src")).isEmpty();
+        Mockito.verify(editor).closeWorkspace("workspace-id");
+    }
+
+    @Test
+    void close_ofAnotherWorkspace_doesNotAffectThisOneTest() {
+        LfeWorkspace other = new LfeWorkspace(editor, "other-id", "other");
+
+        other.close();
+        workspace.list("src").join();
+        workspace.openFile("src/file.txt");
+
+        assertThat(workspace.isClosed()).isFalse();
+        Mockito.verify(editor).closeWorkspace("other-id");
+        Mockito.verify(editor, Mockito.never()).closeWorkspace("workspace-id");
+        Mockito.verify(editor).listWorkspaceDirectory(eq("workspace-id"), eq("src"), anyInt(), any());
+        Mockito.verify(editor).openWorkspaceFile("workspace-id", "src/file.txt");
+    }
+
+    @Test
+    void list_whenClosed_throwsExceptionTest() {
+        workspace.close();
+
+        assertThrows(LfeException.class, () -> workspace.list("src"));
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import es.sfernandez.library4j.types.DataSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeCloseFileEvent;
+import org.vaadin.addons.sfernandez.lfe.events.LfeOpenFileEvent;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileInfo;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveFileEditor_ContentReadTest {
+
+    //---- Attributes ----
+    private UiMock ui;
+    private OperationHandlerMock operationHandler;
+
+    private LiveFileEditor editor;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        ui = new UiMock();
+        operationHandler = new OperationHandlerMock();
+
+        editor = new LiveFileEditor(ui, operationHandler.get());
+
+        ui.attach();
+    }
+
+    //---- Methods ----
+    private void mockReadsTo(final LfeOpenFileEvent event) {
+        Mockito.when(operationHandler.get().treatOpenFileJsRequest(Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(event));
+    }
+
+    //---- Tests ----
+    @Test
+    void readFileContent_whenEditorIsNotWorking_throwsExceptionTest() {
+        ui.detach();
+
+        assertThrows(LfeException.class, () -> editor.readFileContent());
+    }
+
+    @Test
+    void readFileContent_successfully_returnsTheContentTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockReadsTo(new LfeOpenFileEvent(new FileInfo("file.txt", DataSize.ofBytes(12), "text/plain", "File content")));
+
+        Optional<String> content = editor.readFileContent().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(content).contains("File content");
+    }
+
+    @Test
+    void readFileContent_unsuccessfully_returnsEmptyTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockReadsTo(new LfeOpenFileEvent(new LfeError(LfeError.Type.Opening.MISSING_FILE, "No file")));
+
+        Optional<String> content = editor.readFileContent().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(content).isEmpty();
+    }
+
+    @Test
+    void readFileContent_doesNotNotifyAnOpeningTest() throws ExecutionException, InterruptedException, TimeoutException {
+        operationHandler.mockOpenFileToSuccess();
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addOpenFileListener(event -> isNotified.set(true));
+
+        editor.readFileContent().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(isNotified).isFalse();
+    }
+
+    @Test
+    void closeFile_withContent_returnsTheClosedFileTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeCloseFileEvent event = operationHandler.mockCloseFileToSuccess();
+
+        Optional<FileInfo> closed = editor.closeFile(true).get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(closed).isEqualTo(event.fileInfo());
+    }
+
+    @Test
+    void closeFile_withoutContent_notifiesTheClosingTest() throws ExecutionException, InterruptedException, TimeoutException {
+        operationHandler.mockCloseFileToSuccess();
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addCloseFileListener(event -> isNotified.set(true));
+
+        editor.closeFile(false).get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(isNotified).isTrue();
+    }
+
+}
@@ -0,0 +1,138 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveFileEditor_ManyEditorsTest {
+
+    //---- Constants and Definitions ----
+    private static final int EDITORS = 48;
+    private static final int SAVES_PER_EDITOR = 25;
+
+    //---- Attributes ----
+    private final UI sharedUi = Mockito.mock(UI.class);
+    private final List<LiveFileEditor> editors = new ArrayList<>();
+    private final List<UiMock> attachments = new ArrayList<>();
+    private final List<Element> elements = new ArrayList<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(EDITORS);
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        for(int i = 0; i < EDITORS; ++i) {
+            Element element = Mockito.mock(Element.class, Mockito.RETURNS_DEEP_STUBS);
+            Mockito.when(element.isVisible()).thenReturn(true);
+            UiMock attachment = new UiMock(sharedUi, element);
+            editors.add(new LiveFileEditor(attachment, savingOperationHandler()));
+            attachment.attach();
+            attachments.add(attachment);
+            elements.add(element);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    //---- Methods ----
+    private LfeOperationHandler savingOperationHandler() {
+        LfeOperationHandler handler = Mockito.mock(LfeOperationHandler.class);
+        Mockito.when(handler.treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(new LfeSaveFileEvent(invocation.getArgument(1))));
+
+        return handler;
+    }
+
+    private String contentOf(final int editor, final int save) {
+        return "Content " + save + " of editor " + editor;
+    }
+
+    /**
+     * @return the arguments of the JS requests executed in the element, without the expression
+     */
+    private List<List<Object>> jsArgumentsOf(final Element element) {
+        return Mockito.mockingDetails(element).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("executeJs"))
+                .map(invocation -> Arrays.asList(invocation.getArguments()).subList(1, invocation.getArguments().length))
+                .toList();
+    }
+
+    //---- Tests ----
+    @Test
+    void manyEditorsOfTheSameUi_savingInParallel_doNotInterfereTest() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Optional<String>>>> savings = new ArrayList<>();
+
+        for(int i = 0; i < EDITORS; ++i) {
+            int index = i;
+            savings.add(executor.submit(() -> {
+                start.await();
+                List<Optional<String>> saved = new ArrayList<>();
+                for(int save = 0; save < SAVES_PER_EDITOR; ++save)
+                    saved.add(editors.get(index).saveFile(contentOf(index, save)).get(1, TimeUnit.SECONDS));
+                return saved;
+            }));
+        }
+        start.countDown();
+
+        for(int i = 0; i < EDITORS; ++i) {
+            List<Optional<String>> saved = savings.get(i).get(10, TimeUnit.SECONDS);
+
+            for(int save = 0; save < SAVES_PER_EDITOR; ++save)
+                assertThat(saved.get(save)).contains(contentOf(i, save));
+            assertThat(editors.get(i).state().lastSaveData()).contains(contentOf(i, SAVES_PER_EDITOR - 1));
+        }
+    }
+
+    @Test
+    void manyEditorsOfTheSameUi_identifyThemselvesInEachJsRequestTest() throws Exception {
+        for(int i = 0; i < EDITORS; ++i)
+            editors.get(i).saveFile(contentOf(i, 0)).get(1, TimeUnit.SECONDS);
+
+        Set<Object> ids = new HashSet<>();
+        for(int i = 0; i < EDITORS; ++i) {
+            List<List<Object>> requests = jsArgumentsOf(elements.get(i));
+
+            assertThat(requests).hasSize(1);
+            assertThat(requests.get(0)).contains(contentOf(i, 0));
+            ids.add(requests.get(0).get(0));
+        }
+        assertThat(ids).hasSize(EDITORS);
+    }
+
+    @Test
+    void detachedEditors_freeTheirStateInTheBrowserTest() throws Exception {
+        for(int i = 0; i < EDITORS; ++i)
+            editors.get(i).saveFile(contentOf(i, 0)).get(1, TimeUnit.SECONDS);
+
+        attachments.forEach(UiMock::detach);
+
+        for(Element element : elements) {
+            Serializable id = (Serializable) jsArgumentsOf(element).get(0).get(0);
+            Mockito.verify(sharedUi.getPage()).executeJs("forgetEditor($0)", id);
+        }
+    }
+
+}
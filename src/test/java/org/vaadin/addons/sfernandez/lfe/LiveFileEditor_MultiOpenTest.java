@@ -0,0 +1,95 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.error.LfeOperationException;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileInfo;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveFileEditor_MultiOpenTest {
+
+    //---- Attributes ----
+    private UiMock ui;
+    private OperationHandlerMock operationHandler;
+
+    private LiveFileEditor editor;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        ui = new UiMock();
+        operationHandler = new OperationHandlerMock();
+
+        editor = new LiveFileEditor(ui, operationHandler.get());
+
+        ui.attach();
+    }
+
+    //---- Methods ----
+    private void mockPickedFilesTo(final CompletableFuture<Integer> count) {
+        Mockito.when(operationHandler.get().treatPagedJsRequest(Mockito.any()))
+                .thenReturn(count);
+    }
+
+    //---- Tests ----
+    @Test
+    void openFiles_whenEditorIsNotWorking_throwsExceptionTest() {
+        ui.detach();
+
+        assertThrows(LfeException.class, () -> editor.openFiles());
+    }
+
+    @Test
+    void openFiles_whenNoFileIsPicked_returnsNoFilesTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockPickedFilesTo(CompletableFuture.completedFuture(0));
+
+        List<FileInfo> files = editor.openFiles().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(files).isEmpty();
+    }
+
+    @Test
+    void openFiles_whenPickerFails_completesExceptionallyTest() {
+        mockPickedFilesTo(CompletableFuture.failedFuture(
+                new LfeOperationException(new LfeError(LfeError.Type.Other.UNKNOWN, "Unknown error"))));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> editor.openFiles().get(50, TimeUnit.MILLISECONDS));
+
+        assertThat(exception).hasCauseInstanceOf(LfeOperationException.class);
+    }
+
+    @Test
+    void openFiles_whilePickerIsPending_isNotCompletedTest() {
+        mockPickedFilesTo(new CompletableFuture<>());
+
+        CompletableFuture<List<FileInfo>> files = editor.openFiles();
+
+        assertThat(files).isNotDone();
+    }
+
+    @Test
+    void openFiles_doesNotOpenAnyFileInTheEditorTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockPickedFilesTo(CompletableFuture.completedFuture(0));
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addOpenFileListener(event -> isNotified.set(true));
+
+        editor.openFiles().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(isNotified).isFalse();
+        assertThat(editor.state().thereIsFileOpened()).isFalse();
+    }
+
+}
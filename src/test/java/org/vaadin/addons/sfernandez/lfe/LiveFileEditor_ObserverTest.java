@@ -1,17 +1,38 @@
 package org.vaadin.addons.sfernandez.lfe;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.StreamRegistration;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.StreamResourceRegistry;
+import com.vaadin.flow.server.VaadinSession;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
 import org.vaadin.addons.sfernandez.lfe.events.LfeCloseFileEvent;
 import org.vaadin.addons.sfernandez.lfe.events.LfeCreateFileEvent;
 import org.vaadin.addons.sfernandez.lfe.events.LfeOpenFileEvent;
 import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
 import org.vaadin.addons.sfernandez.lfe.setup.LfeAutosaveSetup;
-
+import org.vaadin.addons.sfernandez.lfe.setup.LfeSetup;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,6 +61,17 @@ class LiveFileEditor_ObserverTest {
     }
 
     //---- Methods ----
+    private StreamResourceRegistry mockResourceRegistryOf(final UI mockedUi) {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        StreamResourceRegistry registry = Mockito.mock(StreamResourceRegistry.class);
+        StreamRegistration registration = Mockito.mock(StreamRegistration.class);
+        Mockito.when(mockedUi.getSession()).thenReturn(session);
+        Mockito.when(session.getResourceRegistry()).thenReturn(registry);
+        Mockito.when(registry.registerResource(Mockito.any())).thenReturn(registration);
+        Mockito.when(registration.getResourceUri()).thenReturn(URI.create("VAADIN/dynamic/resource/0/id/lfe-save"));
+
+        return registry;
+    }
 
     //---- Tests ----
     @Test
@@ -173,6 +205,297 @@ class LiveFileEditor_ObserverTest {
         assertThat(isNotified).isTrue();
     }
 
+    @Test
+    void observerNotifies_whenEditorShedsAnAutosave_becauseSaveLimiterIsSaturatedTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        limiter.setMaxInFlightSaves(1);
+        limiter.setMaxQueuedAutosaves(0);
+        limiter.acquire(LfeSaveLimiter.Priority.EXPLICIT, 0L);
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        editor.setup(setup);
+
+        AtomicReference<LfeSaveFileEvent> notifiedEvent = new AtomicReference<>();
+        observer.addSaveFileListener(notifiedEvent::set);
+
+        Optional<String> saved = editor.autosaveFile("Shed data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).isEmpty();
+        assertThat(notifiedEvent.get().failed()).isTrue();
+        assertThat(notifiedEvent.get().error()).map(LfeError::type).contains(LfeError.Type.Saving.OVERLOADED);
+    }
+
+    @Test
+    void observerNotifiesOnlyTheWholeWrite_whenADeltaSaveVersionMismatchesTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveDeltas(true);
+        editor.setup(setup);
+        LfeSaveFileEvent mismatch = new LfeSaveFileEvent("Hello world!",
+                new LfeError(LfeError.Type.Saving.VERSION_MISMATCH, "Version mismatch"));
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent("Hello world")))
+                .thenReturn(CompletableFuture.completedFuture(mismatch))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent("Hello world!")));
+        List<LfeSaveFileEvent> notifiedEvents = new ArrayList<>();
+        observer.addSaveFileListener(notifiedEvents::add);
+
+        editor.saveFile("Hello world").get(50, TimeUnit.MILLISECONDS);
+        Optional<String> saved = editor.saveFile("Hello world!").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).contains("Hello world!");
+        assertThat(notifiedEvents).hasSize(2).noneMatch(LfeSaveFileEvent::failed);
+        Mockito.verify(operationHandler.get(), Mockito.times(3)).treatSaveFileJsRequest(Mockito.any(), Mockito.anyString());
+    }
+
+    @Test
+    void editorServesTheContentOverHttp_whenItReachesTheStreamingThresholdTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveStreamingThreshold(5);
+        editor.setup(setup);
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        operationHandler.mockSaveFileToSuccess("Streamed data");
+
+        Optional<String> saved = editor.saveFile("Streamed data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).contains("Streamed data");
+        Mockito.verify(registry).registerResource(Mockito.any());
+    }
+
+    @Test
+    void editorServesTheContentOverHttp_whenItReachesTheCompressionThresholdTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSetup setup = new LfeSetup();
+        setup.setCompressionThreshold(5);
+        editor.setup(setup);
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        operationHandler.mockSaveFileToSuccess("Compressed data");
+
+        Optional<String> saved = editor.saveFile("Compressed data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).contains("Compressed data");
+        Mockito.verify(registry).registerResource(Mockito.any());
+    }
+
+    @Test
+    void editorCompressesTheContent_whenItsEncodedLengthReachesTheThresholdButNotItsCharCountTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSetup setup = new LfeSetup();
+        setup.setCompressionThreshold(10);
+        editor.setup(setup);
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        operationHandler.mockSaveFileToSuccess("ñandú€");
+
+        Optional<String> saved = editor.saveFile("ñandú€").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).contains("ñandú€");
+        Mockito.verify(registry).registerResource(Mockito.any());
+    }
+
+    @Test
+    void encodedLength_isTheUtf8LengthOfTheContentTest() {
+        for(String content : List.of("", "plain", "ñandú", "€uro", "emoji \uD83D\uDE00"))
+            assertThat(LiveFileEditor.encodedLengthOf(content)).isEqualTo(content.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void compressedSave_isStillTheBaseOfTheNextDeltaTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSetup setup = new LfeSetup();
+        setup.setCompressionThreshold(5);
+        setup.setSaveDeltas(true);
+        editor.setup(setup);
+        mockResourceRegistryOf(ui.getUI().orElseThrow());
+        String base = "Compressed data that is long enough to send a delta of its change instead of the whole content";
+        LfeSaveFileEvent mismatch = new LfeSaveFileEvent(base + "!",
+                new LfeError(LfeError.Type.Saving.VERSION_MISMATCH, "Version mismatch"));
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent(base)))
+                .thenReturn(CompletableFuture.completedFuture(mismatch))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent(base + "!")));
+
+        editor.saveFile(base).get(50, TimeUnit.MILLISECONDS);
+        editor.saveFile(base + "!").get(50, TimeUnit.MILLISECONDS);
+
+        // The delta is sent, then the whole content once the browser reports the mismatch
+        Mockito.verify(operationHandler.get(), Mockito.times(3)).treatSaveFileJsRequest(Mockito.any(), Mockito.anyString());
+    }
+
+    @Test
+    void editorDoesNotServeTheContentOverHttp_belowTheStreamingThresholdTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveStreamingThreshold(1024);
+        editor.setup(setup);
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        operationHandler.mockSaveFileToSuccess("Data");
+
+        editor.saveFile("Data").get(50, TimeUnit.MILLISECONDS);
+
+        Mockito.verifyNoInteractions(registry);
+    }
+
+    @Test
+    void editorServesBinaryContentOverHttp_andNotifiesTheSaveTest() throws ExecutionException, InterruptedException, TimeoutException {
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.isNull()))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent(null)));
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addSaveFileListener(event -> isNotified.set(true));
+        byte[] content = {0, (byte) 0xFF, 42};
+
+        Optional<byte[]> saved = editor.saveFile(content).get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).contains(content);
+        assertThat(isNotified).isTrue();
+        Mockito.verify(registry).registerResource(Mockito.any());
+    }
+
+    @Test
+    void binarySave_waitsForTheSaveInFlight_andIsAdmittedByTheSaveLimiterTest() {
+        mockResourceRegistryOf(ui.getUI().orElseThrow());
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        editor.setup(setup);
+        CompletableFuture<LfeSaveFileEvent> autosaving = new CompletableFuture<>();
+        CompletableFuture<LfeSaveFileEvent> binarySaving = new CompletableFuture<>();
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.any()))
+                .thenReturn(autosaving)
+                .thenReturn(binarySaving);
+        editor.autosaveFile("Autosaved data");
+
+        CompletableFuture<Optional<byte[]>> saving = editor.saveFile(new byte[] {1, 2, 3});
+
+        assertThat(limiter.statistics().inFlightSaves()).isEqualTo(1);
+        autosaving.complete(new LfeSaveFileEvent("Autosaved data"));
+        assertThat(limiter.statistics().inFlightSaves()).isEqualTo(1);
+        assertThat(limiter.statistics().inFlightBytes()).isEqualTo(3);
+
+        binarySaving.complete(new LfeSaveFileEvent(null));
+
+        assertThat(saving.join()).isPresent();
+        assertThat(limiter.statistics().inFlightSaves()).isZero();
+    }
+
+    @Test
+    void editorServesStreamedContentOverHttp_andNotifiesTheSaveTest() throws ExecutionException, InterruptedException, TimeoutException {
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.isNull()))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent(null)));
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addSaveFileListener(event -> isNotified.set(true));
+
+        Optional<Long> saved = editor.saveFile(new ByteArrayInputStream(new byte[] {1, 2, 3})).get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(saved).isPresent();
+        assertThat(isNotified).isTrue();
+        Mockito.verify(registry).registerResource(Mockito.any());
+    }
+
+    @Test
+    void streamedSave_isCompressedOnlyIfItReachesTheCompressionThresholdTest() throws IOException {
+        StreamResourceRegistry registry = mockResourceRegistryOf(ui.getUI().orElseThrow());
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.isNull()))
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent(null)));
+        LfeSetup setup = new LfeSetup();
+        setup.setCompressionThreshold(10);
+        editor.setup(setup);
+        byte[] small = {1, 2, 3};
+        byte[] large = new byte[100];
+
+        editor.saveFile(new ByteArrayInputStream(small));
+        editor.saveFile(new ByteArrayInputStream(large));
+
+        ArgumentCaptor<StreamResource> resources = ArgumentCaptor.forClass(StreamResource.class);
+        Mockito.verify(registry, Mockito.times(2)).registerResource(resources.capture());
+        ByteArrayOutputStream smallServed = new ByteArrayOutputStream();
+        resources.getAllValues().get(0).getWriter().accept(smallServed, null);
+        ByteArrayOutputStream largeServed = new ByteArrayOutputStream();
+        resources.getAllValues().get(1).getWriter().accept(largeServed, null);
+
+        assertThat(smallServed.toByteArray()).isEqualTo(small);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(largeServed.toByteArray())).readAllBytes()).isEqualTo(large);
+    }
+
+    @Test
+    void streamedSave_withoutCompressionThreshold_isAdmittedWithAReservationAndNotPeekedTest() {
+        mockResourceRegistryOf(ui.getUI().orElseThrow());
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        editor.setup(setup);
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.isNull()))
+                .thenReturn(new CompletableFuture<>());
+        InputStream content = Mockito.spy(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+
+        editor.saveFile(content);
+
+        assertThat(limiter.statistics().inFlightBytes()).isEqualTo(1024 * 1024);
+        Mockito.verifyNoInteractions(content);
+    }
+
+    @Test
+    void streamedSave_endingWithinItsHead_isAdmittedWithItsSizeTest() {
+        mockResourceRegistryOf(ui.getUI().orElseThrow());
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        setup.setCompressionThreshold(10);
+        editor.setup(setup);
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.isNull()))
+                .thenReturn(new CompletableFuture<>());
+
+        editor.saveFile(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+
+        assertThat(limiter.statistics().inFlightBytes()).isEqualTo(3);
+    }
+
+    @Test
+    void editorReleasesItsSavePermit_afterSavingTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        editor.setup(setup);
+        operationHandler.mockSaveFileToSuccess("Saved data");
+
+        editor.saveFile("Saved data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(limiter.statistics().inFlightSaves()).isZero();
+        assertThat(limiter.statistics().inFlightBytes()).isZero();
+    }
+
+    @Test
+    void editorReleasesItsSavePermit_whenItsUiDetachesWhileSavingTest() {
+        LfeSaveLimiter limiter = new LfeSaveLimiter();
+        LfeSetup setup = new LfeSetup();
+        setup.setSaveLimiter(limiter);
+        editor.setup(setup);
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<Optional<String>> saving = editor.saveFile("Never answered");
+        assertThat(limiter.statistics().inFlightSaves()).isEqualTo(1);
+
+        ui.detach();
+
+        assertThat(saving).isCompletedExceptionally();
+        assertThat(limiter.statistics().inFlightSaves()).isZero();
+        assertThat(limiter.statistics().inFlightBytes()).isZero();
+    }
+
+    @Test
+    void editorSavesAgain_whenItsUiIsAttachedAgainAfterDetachingWhileSavingTest() {
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.anyString()))
+                .thenReturn(new CompletableFuture<>());
+        CompletableFuture<Optional<String>> unanswered = editor.saveFile("Never answered");
+        CompletableFuture<Optional<String>> queued = editor.saveFile("Queued behind it");
+
+        ui.detach();
+        ui.attach();
+        operationHandler.mockSaveFileToSuccess("Saved again");
+        CompletableFuture<Optional<String>> saving = editor.saveFile("Saved again");
+
+        assertThat(unanswered).isCompletedExceptionally();
+        assertThat(queued).isCompletedExceptionally();
+        assertThat(saving).isCompletedWithValue(Optional.of("Saved again"));
+    }
+
     @Test
     void observerNotifies_whenAutosaveStopsWorking_becauseOfStoppingItExplicitlyTest() {
         editor.autosave().start();
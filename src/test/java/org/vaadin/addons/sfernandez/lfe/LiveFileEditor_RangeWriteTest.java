@@ -0,0 +1,129 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeSaveFileEvent;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveFileEditor_RangeWriteTest {
+
+    //---- Attributes ----
+    private UiMock ui;
+    private OperationHandlerMock operationHandler;
+
+    private LiveFileEditor editor;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        ui = new UiMock();
+        operationHandler = new OperationHandlerMock();
+
+        editor = new LiveFileEditor(ui, operationHandler.get());
+
+        ui.attach();
+    }
+
+    //---- Methods ----
+    private void mockWritesTo(final LfeSaveFileEvent event) {
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(event));
+    }
+
+    //---- Tests ----
+    @Test
+    void writeRange_withNegativeOffset_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> editor.writeRange(-1, "Data"));
+    }
+
+    @Test
+    void writeRange_whenEditorIsNotWorking_throwsExceptionTest() {
+        ui.detach();
+
+        assertThrows(LfeException.class, () -> editor.writeRange(0, "Data"));
+    }
+
+    @Test
+    void writeRange_successfully_returnsTheWrittenDataTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockWritesTo(new LfeSaveFileEvent("Data"));
+
+        Optional<String> written = editor.writeRange(10, "Data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(written).contains("Data");
+    }
+
+    @Test
+    void writeRange_unsuccessfully_returnsEmptyTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockWritesTo(new LfeSaveFileEvent("Data", new LfeError(LfeError.Type.Saving.MISSING_FILE, "No file")));
+
+        Optional<String> written = editor.writeRange(10, "Data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void writeRange_doesNotNotifyASaveTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockWritesTo(new LfeSaveFileEvent("Data"));
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addSaveFileListener(event -> isNotified.set(true));
+
+        editor.writeRange(10, "Data").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(isNotified).isFalse();
+    }
+
+    @Test
+    void truncate_withNegativeSize_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> editor.truncate(-1));
+    }
+
+    @Test
+    void truncate_successfully_returnsTheNewSizeTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockWritesTo(new LfeSaveFileEvent(null));
+
+        Optional<Long> size = editor.truncate(3_000_000_000L).get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(size).contains(3_000_000_000L);
+    }
+
+    @Test
+    void truncate_unsuccessfully_returnsEmptyTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockWritesTo(new LfeSaveFileEvent(null, new LfeError(LfeError.Type.Saving.NOT_ALLOWED, "Not allowed")));
+
+        Optional<Long> size = editor.truncate(0).get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(size).isEmpty();
+    }
+
+    @Test
+    void writeRange_withSaveInFlight_isWrittenOnceTheSaveCompletesTest() {
+        CompletableFuture<LfeSaveFileEvent> saving = new CompletableFuture<>();
+        Mockito.when(operationHandler.get().treatSaveFileJsRequest(Mockito.any(), Mockito.any()))
+                .thenReturn(saving)
+                .thenReturn(CompletableFuture.completedFuture(new LfeSaveFileEvent("Data")));
+        editor.saveFile("Content");
+
+        CompletableFuture<Optional<String>> writing = editor.writeRange(0, "Data");
+
+        assertThat(writing).isNotDone();
+        Mockito.verify(operationHandler.get(), Mockito.times(1)).treatSaveFileJsRequest(Mockito.any(), Mockito.any());
+
+        saving.complete(new LfeSaveFileEvent("Content"));
+
+        assertThat(writing.join()).contains("Data");
+        Mockito.verify(operationHandler.get(), Mockito.times(2)).treatSaveFileJsRequest(Mockito.any(), Mockito.any());
+    }
+
+}
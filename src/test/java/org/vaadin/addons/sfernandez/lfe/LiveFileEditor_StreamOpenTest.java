@@ -0,0 +1,119 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import com.vaadin.flow.component.UI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeOpenFileEvent;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileBytes;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileStream;
+import org.vaadin.addons.sfernandez.lfe.parameters.OptionsOpenFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveFileEditor_StreamOpenTest {
+
+    //---- Attributes ----
+    private UiMock ui;
+    private OperationHandlerMock operationHandler;
+
+    private LiveFileEditor editor;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        UI.setCurrent(Mockito.mock(UI.class)); // Stream resources are registered in the current UI
+        ui = new UiMock();
+        operationHandler = new OperationHandlerMock();
+
+        editor = new LiveFileEditor(ui, operationHandler.get());
+
+        ui.attach();
+    }
+
+    @AfterEach
+    void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    //---- Methods ----
+    private boolean thereIsAnOpenStreamRegistered() {
+        return ui.getElement().getAttributeNames()
+                .anyMatch(attribute -> attribute.startsWith(LfeOpenStream.ATTRIBUTE_PREFIX));
+    }
+
+    //---- Tests ----
+    @Test
+    void openFileAsStream_whenEditorIsNotWorking_throwsExceptionTest() {
+        ui.detach();
+
+        assertThrows(LfeException.class, () -> editor.openFileAsStream());
+    }
+
+    @Test
+    void openFileAsStream_successfully_returnsTheInfoAndTheContentTest() throws ExecutionException, InterruptedException, TimeoutException {
+        LfeOpenFileEvent event = operationHandler.mockOpenFileToSuccess();
+
+        Optional<FileStream> opened = editor.openFileAsStream().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(opened).isPresent();
+        assertThat(opened.get().info()).isEqualTo(event.fileInfo().orElseThrow());
+        assertThat(opened.get().content()).isNotNull();
+        assertThat(thereIsAnOpenStreamRegistered()).isTrue();
+    }
+
+    @Test
+    void openFileAsStream_successfully_notifiesTheOpeningTest() throws ExecutionException, InterruptedException, TimeoutException {
+        operationHandler.mockOpenFileToSuccess();
+
+        editor.openFileAsStream().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(editor.state().thereIsFileOpened()).isTrue();
+    }
+
+    @Test
+    void openFileAsStream_unsuccessfully_returnsEmptyAndUnregistersTheStreamTest() throws ExecutionException, InterruptedException, TimeoutException {
+        operationHandler.mockOpenFileToFail();
+
+        Optional<FileStream> opened = editor.openFileAsStream().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(opened).isEmpty();
+        assertThat(thereIsAnOpenStreamRegistered()).isFalse();
+    }
+
+    @Test
+    void openFileAsBytes_unsuccessfully_returnsEmptyTest() throws ExecutionException, InterruptedException, TimeoutException {
+        operationHandler.mockOpenFileToFail();
+
+        Optional<FileBytes> opened = editor.openFileAsBytes().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(opened).isEmpty();
+        assertThat(thereIsAnOpenStreamRegistered()).isFalse();
+    }
+
+    @Test
+    void openFileAsBytes_successfully_readsTheUploadInTheGivenExecutorTest() {
+        operationHandler.mockOpenFileToSuccess();
+        List<Runnable> reads = new ArrayList<>();
+
+        editor.openFileAsBytes(new OptionsOpenFile(), reads::add);
+
+        assertThat(reads).hasSize(1);
+    }
+
+    @Test
+    void openFileAsBytes_withNullExecutor_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> editor.openFileAsBytes(new OptionsOpenFile(), null));
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.vaadin.addons.sfernandez.lfe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.error.LfeError;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+import org.vaadin.addons.sfernandez.lfe.error.LfeOperationException;
+import org.vaadin.addons.sfernandez.lfe.events.LfeOpenFileEvent;
+import org.vaadin.addons.sfernandez.lfe.parameters.FileInfo;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveFileEditor_WorkspaceTest {
+
+    //---- Attributes ----
+    private UiMock ui;
+    private OperationHandlerMock operationHandler;
+
+    private LiveFileEditor editor;
+
+    //---- Configuration ----
+    @BeforeEach
+    void setup() {
+        ui = new UiMock();
+        operationHandler = new OperationHandlerMock();
+
+        editor = new LiveFileEditor(ui, operationHandler.get());
+
+        ui.attach();
+    }
+
+    //---- Methods ----
+    private void mockOpenWorkspaceTo(final CompletableFuture<String> name) {
+        Mockito.when(operationHandler.get().treatOpenWorkspaceJsRequest(Mockito.any()))
+                .thenReturn(name);
+    }
+
+    //---- Tests ----
+    @Test
+    void openWorkspace_whenEditorIsNotWorking_throwsExceptionTest() {
+        ui.detach();
+
+        assertThrows(LfeException.class, () -> editor.openWorkspace());
+    }
+
+    @Test
+    void openWorkspace_successfully_returnsTheWorkspaceTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockOpenWorkspaceTo(CompletableFuture.completedFuture("project"));
+
+        LfeWorkspace workspace = editor.openWorkspace().get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(workspace.name()).isEqualTo("project");
+        assertThat(workspace.isClosed()).isFalse();
+    }
+
+    @Test
+    void openWorkspace_unsuccessfully_completesExceptionallyTest() {
+        mockOpenWorkspaceTo(CompletableFuture.failedFuture(
+                new LfeOperationException(new LfeError(LfeError.Type.Opening.ABORT, "Aborted"))));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> editor.openWorkspace().get(50, TimeUnit.MILLISECONDS));
+
+        assertThat(exception).hasCauseInstanceOf(LfeOperationException.class);
+    }
+
+    @Test
+    void openFile_ofTheWorkspace_opensItInTheEditorTest() throws ExecutionException, InterruptedException, TimeoutException {
+        mockOpenWorkspaceTo(CompletableFuture.completedFuture("project"));
+        LfeOpenFileEvent event = operationHandler.mockOpenFileToSuccess();
+        AtomicBoolean isNotified = new AtomicBoolean(false);
+        editor.observer().addOpenFileListener(opening -> isNotified.set(true));
+
+        LfeWorkspace workspace = editor.openWorkspace().get(50, TimeUnit.MILLISECONDS);
+        Optional<FileInfo> opened = workspace.openFile("src/file.txt").get(50, TimeUnit.MILLISECONDS);
+
+        assertThat(opened).isEqualTo(event.fileInfo());
+        assertThat(isNotified).isTrue();
+        assertThat(editor.state().thereIsFileOpened()).isTrue();
+    }
+
+}
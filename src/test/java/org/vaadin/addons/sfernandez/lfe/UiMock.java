@@ -1,6 +1,8 @@
 package org.vaadin.addons.sfernandez.lfe;
 
 import com.vaadin.flow.component.*;
+import com.vaadin.flow.component.page.Page;
+import com.vaadin.flow.dom.Element;
 import org.mockito.Mockito;
 
 import java.util.Optional;
@@ -9,10 +11,31 @@ import java.util.Optional;
 final class UiMock extends Component {
 
     //---- Attributes ----
-    private final UI mockedUi = Mockito.mock(UI.class);
+    private final UI mockedUi;
+    private final Element mockedElement;
 
     //---- Constructor ----
     public UiMock() {
+        this(Mockito.mock(UI.class));
+    }
+
+    /**
+     * @param mockedUi UI shared with other attachments
+     */
+    public UiMock(UI mockedUi) {
+        this(mockedUi, null);
+    }
+
+    /**
+     * @param mockedUi UI shared with other attachments
+     * @param mockedElement Element that replaces the one of the component, so its JS requests can be verified.
+     *                      Null to keep the one of the component
+     */
+    public UiMock(UI mockedUi, Element mockedElement) {
+        this.mockedUi = mockedUi;
+        this.mockedElement = mockedElement;
+        if(mockedUi.getPage() == null)
+            Mockito.when(mockedUi.getPage()).thenReturn(Mockito.mock(Page.class));
 //            Mockito.when(mockedUi.access(any())).then(invocation -> {
 //                ((Runnable) invocation.getArgument(0)).run();
 //                return null;
@@ -28,6 +51,11 @@ final class UiMock extends Component {
         super.fireEvent(new DetachEvent(mockedUi));
     }
 
+    @Override
+    public Element getElement() {
+        return mockedElement != null ? mockedElement : super.getElement();
+    }
+
     @Override
     public Optional<UI> getUI() {
         return Optional.of(mockedUi);
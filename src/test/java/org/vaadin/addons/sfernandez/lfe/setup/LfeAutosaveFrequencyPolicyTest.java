@@ -0,0 +1,62 @@
+package org.vaadin.addons.sfernandez.lfe.setup;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LfeAutosaveFrequencyPolicyTest {
+
+    //---- Fixtures ----
+    private final Duration frequency = Duration.ofSeconds(5);
+    private final Duration ceiling = Duration.ofMinutes(1);
+
+    //---- Tests ----
+    @Test
+    void fixed_alwaysReturnsTheFrequencyTest() {
+        LfeAutosaveFrequencyPolicy policy = LfeAutosaveFrequencyPolicy.fixed();
+
+        assertThat(policy.isFixed()).isTrue();
+        assertThat(policy.nextInterval(frequency, frequency, true)).isEqualTo(frequency);
+        assertThat(policy.nextInterval(frequency, frequency, false)).isEqualTo(frequency);
+    }
+
+    @Test
+    void exponentialBackoff_isNotFixedTest() {
+        assertThat(LfeAutosaveFrequencyPolicy.exponentialBackoff(2, ceiling).isFixed()).isFalse();
+    }
+
+    @Test
+    void exponentialBackoff_growsTheInterval_whenThereAreNoChangesTest() {
+        LfeAutosaveFrequencyPolicy policy = LfeAutosaveFrequencyPolicy.exponentialBackoff(2, ceiling);
+
+        assertThat(policy.nextInterval(frequency, frequency, false)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(policy.nextInterval(frequency, Duration.ofSeconds(10), false)).isEqualTo(Duration.ofSeconds(20));
+    }
+
+    @Test
+    void exponentialBackoff_neverExceedsTheCeilingTest() {
+        LfeAutosaveFrequencyPolicy policy = LfeAutosaveFrequencyPolicy.exponentialBackoff(2, ceiling);
+
+        assertThat(policy.nextInterval(frequency, Duration.ofSeconds(40), false)).isEqualTo(ceiling);
+        assertThat(policy.nextInterval(frequency, ceiling, false)).isEqualTo(ceiling);
+    }
+
+    @Test
+    void exponentialBackoff_returnsToTheFrequency_whenThereAreChangesTest() {
+        LfeAutosaveFrequencyPolicy policy = LfeAutosaveFrequencyPolicy.exponentialBackoff(2, ceiling);
+
+        assertThat(policy.nextInterval(frequency, ceiling, true)).isEqualTo(frequency);
+    }
+
+    @Test
+    void exponentialBackoff_withInvalidArguments_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> LfeAutosaveFrequencyPolicy.exponentialBackoff(1, ceiling));
+        assertThrows(LfeException.class, () -> LfeAutosaveFrequencyPolicy.exponentialBackoff(2, null));
+        assertThrows(LfeException.class, () -> LfeAutosaveFrequencyPolicy.exponentialBackoff(2, Duration.ZERO));
+    }
+
+}
@@ -2,9 +2,12 @@ package org.vaadin.addons.sfernandez.lfe.setup;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.addons.sfernandez.lfe.LfeAutosaveScheduler;
 import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 
 import java.time.Duration;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +47,68 @@ class LfeAutosaveSetupTest {
         assertThrows(LfeException.class, () -> builder.frequency(Duration.ofMillis(0)).build());
     }
 
+    @Test
+    void frequencyPolicy_isFixed_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.frequencyPolicy().isFixed()).isTrue();
+    }
+
+    @Test
+    void build_withNullFrequencyPolicy_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> builder.frequencyPolicy(null).build());
+    }
+
+    @Test
+    void ticks_areNotSpreadNorJittered_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.isSpreadingTicksOverFrequency()).isFalse();
+        assertThat(setup.initialDelayJitter()).isZero();
+    }
+
+    @Test
+    void build_withNullOrNegativeInitialDelayJitter_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> builder.initialDelayJitter(null).build());
+        assertThrows(LfeException.class, () -> builder.initialDelayJitter(Duration.ofMillis(-1)).build());
+    }
+
+    @Test
+    void build_withSpreadAndJitteredTicks_worksTest() {
+        LfeAutosaveSetup setup = builder
+                .spreadTicksOverFrequency(true)
+                .initialDelayJitter(Duration.ofSeconds(1))
+                .build();
+
+        assertThat(setup.isSpreadingTicksOverFrequency()).isTrue();
+        assertThat(setup.initialDelayJitter()).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void autosave_isNotDebounced_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.isDebounced()).isFalse();
+        assertThat(setup.debounceQuietPeriod()).isNull();
+        assertThat(setup.debounceMaxWait()).isNull();
+    }
+
+    @Test
+    void build_withInvalidDebounce_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> builder.debounce(Duration.ZERO, Duration.ofSeconds(1)).build());
+        assertThrows(LfeException.class, () -> builder.debounce(Duration.ofSeconds(1), null).build());
+        assertThrows(LfeException.class, () -> builder.debounce(Duration.ofSeconds(2), Duration.ofSeconds(1)).build());
+    }
+
+    @Test
+    void build_withDebounce_worksTest() {
+        LfeAutosaveSetup setup = builder.debounce(Duration.ofSeconds(1), Duration.ofSeconds(10)).build();
+
+        assertThat(setup.isDebounced()).isTrue();
+        assertThat(setup.debounceQuietPeriod()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(setup.debounceMaxWait()).isEqualTo(Duration.ofSeconds(10));
+    }
+
     @Test
     void build_withNullDataToSaveSupplier_throwsExceptionTest() {
         assertThrows(LfeException.class, () -> builder.dataToSaveSupplier(null).build());
@@ -56,17 +121,63 @@ class LfeAutosaveSetupTest {
         assertThat(setup.isAllowedToAlterUiPollInterval()).isFalse();
     }
 
+    @Test
+    void contentVersion_isEmpty_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.contentVersion()).isEmpty();
+    }
+
+    @Test
+    void fingerprints_areNotUsedToDetectChanges_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.isUsingFingerprintsToDetectChanges()).isFalse();
+    }
+
+    @Test
+    void push_isNotReliedOn_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.isRelyingOnPushWhenEnabled()).isFalse();
+    }
+
+    @Test
+    void scheduler_isTheSharedOne_byDefaultTest() {
+        LfeAutosaveSetup setup = builder.build();
+
+        assertThat(setup.scheduler()).isSameAs(LfeAutosaveScheduler.shared());
+    }
+
+    @Test
+    void build_withNullScheduler_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> builder.scheduler(null).build());
+    }
+
     @Test
     void build_worksTest() {
+        LfeAutosaveScheduler scheduler = Mockito.mock(LfeAutosaveScheduler.class);
+        LongSupplier contentVersion = () -> 1L;
+        LfeAutosaveFrequencyPolicy frequencyPolicy = LfeAutosaveFrequencyPolicy.exponentialBackoff(2, Duration.ofMinutes(1));
         LfeAutosaveSetup setup = builder
                 .frequency(Duration.ofSeconds(2))
+                .frequencyPolicy(frequencyPolicy)
                 .dataToSaveSupplier(fooDataSupplier)
+                .contentVersionSupplier(contentVersion)
+                .useFingerprintsToDetectChanges(true)
                 .allowToAlterUiPollInterval(true)
+                .relyOnPushWhenEnabled(true)
+                .scheduler(scheduler)
                 .build();
 
         assertThat(setup.frequency()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(setup.frequencyPolicy()).isSameAs(frequencyPolicy);
         assertThat(setup.dataToSave()).isSameAs(fooDataSupplier);
+        assertThat(setup.contentVersion()).containsSame(contentVersion);
+        assertThat(setup.isUsingFingerprintsToDetectChanges()).isTrue();
         assertThat(setup.isAllowedToAlterUiPollInterval()).isTrue();
+        assertThat(setup.isRelyingOnPushWhenEnabled()).isTrue();
+        assertThat(setup.scheduler()).isSameAs(scheduler);
     }
 
 }
\ No newline at end of file
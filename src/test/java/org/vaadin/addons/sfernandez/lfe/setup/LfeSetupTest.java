@@ -2,9 +2,12 @@ package org.vaadin.addons.sfernandez.lfe.setup;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.vaadin.addons.sfernandez.lfe.LfeSaveLimiter;
+import org.vaadin.addons.sfernandez.lfe.error.LfeException;
 import org.vaadin.addons.sfernandez.lfe.parameters.FileType;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class LfeSetupTest {
 
@@ -63,4 +66,86 @@ class LfeSetupTest {
         assertThat(setup.isAllFileTypesAllowed()).isTrue();
     }
 
-}
\ No newline at end of file
+    @Test
+    void lastSaveData_isRetained_byDefaultTest() {
+        LfeSetup setup = new LfeSetup();
+
+        assertThat(setup.isRetainLastSaveData()).isTrue();
+    }
+
+    @Test
+    void setRetainLastSaveData_worksTest() {
+        setup.setRetainLastSaveData(false);
+
+        assertThat(setup.isRetainLastSaveData()).isFalse();
+    }
+
+    @Test
+    void saveLimiter_isTheSharedOne_byDefaultTest() {
+        LfeSetup setup = new LfeSetup();
+
+        assertThat(setup.getSaveLimiter()).isSameAs(LfeSaveLimiter.shared());
+    }
+
+    @Test
+    void setSaveLimiter_worksTest() {
+        LfeSaveLimiter saveLimiter = new LfeSaveLimiter();
+
+        setup.setSaveLimiter(saveLimiter);
+
+        assertThat(setup.getSaveLimiter()).isSameAs(saveLimiter);
+    }
+
+    @Test
+    void setSaveLimiter_withNull_setsTheSharedOneTest() {
+        setup.setSaveLimiter(new LfeSaveLimiter());
+
+        setup.setSaveLimiter(null);
+
+        assertThat(setup.getSaveLimiter()).isSameAs(LfeSaveLimiter.shared());
+    }
+
+    @Test
+    void deltas_areNotSaved_byDefaultTest() {
+        LfeSetup setup = new LfeSetup();
+
+        assertThat(setup.isSaveDeltas()).isFalse();
+    }
+
+    @Test
+    void saves_areNotStreamed_byDefaultTest() {
+        LfeSetup setup = new LfeSetup();
+
+        assertThat(setup.getSaveStreamingThreshold()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void setSaveStreamingThreshold_withNegativeValue_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> setup.setSaveStreamingThreshold(-1));
+    }
+
+    @Test
+    void setSaveStreamingThreshold_worksTest() {
+        setup.setSaveStreamingThreshold(1024);
+
+        assertThat(setup.getSaveStreamingThreshold()).isEqualTo(1024);
+    }
+
+    @Test
+    void contents_areNotCompressed_byDefaultTest() {
+        assertThat(setup.getCompressionThreshold()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void setCompressionThreshold_withNegativeValue_throwsExceptionTest() {
+        assertThrows(LfeException.class, () -> setup.setCompressionThreshold(-1));
+    }
+
+    @Test
+    void setCompressionThreshold_worksTest() {
+        setup.setCompressionThreshold(4096);
+
+        assertThat(setup.getCompressionThreshold()).isEqualTo(4096);
+    }
+
+}